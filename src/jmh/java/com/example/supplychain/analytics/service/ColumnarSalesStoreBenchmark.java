@@ -0,0 +1,97 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.ProductSalesDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sales by product, status and date range from the columnar store versus the
+ * {@code findAll().stream()} grouping it replaced. The baseline runs over entities
+ * already in memory, so it leaves out the query and hydration cost the old path also
+ * paid and understates the gap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarSalesStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int sales;
+
+    @Param({"1000"})
+    private int products;
+
+    private final LocalDate from = LocalDate.now().minusDays(90);
+    private final LocalDate to = LocalDate.now();
+
+    private ColumnarSalesStore store;
+    private List<Sale> entities;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Sale.SaleStatus[] statuses = Sale.SaleStatus.values();
+        store = new ColumnarSalesStore();
+        entities = new ArrayList<>(sales);
+        for (int i = 1; i <= sales; i++) {
+            Sale sale = new Sale();
+            sale.setId((long) i);
+            sale.setProductId((long) random.nextInt(products));
+            sale.setQuantity(1 + random.nextInt(20));
+            sale.setUnitPrice(BigDecimal.valueOf(100 + random.nextInt(10_000), 2));
+            sale.setTotalAmount(sale.getUnitPrice().multiply(BigDecimal.valueOf(sale.getQuantity())));
+            sale.setStatus(statuses[random.nextInt(statuses.length)]);
+            sale.setCreatedAt(LocalDateTime.now().minusDays(random.nextInt(365)));
+            entities.add(sale);
+            store.onSaleChanged(SaleChangedEvent.created(SaleSnapshot.of(sale)));
+        }
+    }
+
+    @Benchmark
+    public List<ProductSalesDTO> columnar() {
+        return store.groupByProduct(Sale.SaleStatus.CONFIRMED, from, to);
+    }
+
+    @Benchmark
+    public List<ProductSalesDTO> entityStream() {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Map<Long, List<Sale>> byProduct = entities.stream()
+                .filter(sale -> sale.getStatus() == Sale.SaleStatus.CONFIRMED)
+                .filter(sale -> !sale.getCreatedAt().isBefore(start) && sale.getCreatedAt().isBefore(end))
+                .collect(Collectors.groupingBy(Sale::getProductId));
+        List<ProductSalesDTO> result = new ArrayList<>(byProduct.size());
+        byProduct.forEach((productId, rows) -> result.add(new ProductSalesDTO(productId,
+                (long) rows.size(),
+                rows.stream().mapToLong(Sale::getQuantity).sum(),
+                rows.stream().map(Sale::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add))));
+        result.sort(Comparator.comparing(ProductSalesDTO::getTotalRevenue).reversed());
+        return result;
+    }
+}
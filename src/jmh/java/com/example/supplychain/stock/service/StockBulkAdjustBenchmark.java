@@ -0,0 +1,97 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.SupplyChainApplication;
+import com.example.supplychain.stock.dto.StockAdjustmentLineDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentRequestDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentResultDTO;
+import com.example.supplychain.stock.dto.StockDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code POST /stocks/adjustments/bulk} request against the same lines sent one
+ * at a time through {@code POST /stocks/{id}/adjust}, both through the service layer
+ * of a full h2 context. Every line adds a unit, so no line is ever refused and both
+ * sides do the same work per line, events and journal included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockBulkAdjustBenchmark {
+
+    private static final long FIRST_PRODUCT_ID = 1_000_000L;
+
+    @Param({"100", "1000"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+    private StockService stockService;
+    private StockAdjustmentRequestDTO request;
+    private final List<Long> stockIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SupplyChainApplication.class)
+                .profiles("h2")
+                .web(WebApplicationType.NONE)
+                .run();
+        stockService = context.getBean(StockService.class);
+
+        List<StockAdjustmentLineDTO> requestLines = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            StockDTO stock = new StockDTO();
+            stock.setProductId(FIRST_PRODUCT_ID + i);
+            stock.setQuantity(1_000);
+            stock.setMinimumLevel(0);
+            stock.setMaximumLevel(Integer.MAX_VALUE);
+            stock.setWarehouseLocation("Warehouse-Bench");
+            stockIds.add(stockService.createStock(stock).getId());
+
+            StockAdjustmentLineDTO line = new StockAdjustmentLineDTO();
+            line.setProductId(FIRST_PRODUCT_ID + i);
+            line.setDelta(1);
+            requestLines.add(line);
+        }
+        request = new StockAdjustmentRequestDTO();
+        request.setLines(requestLines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public StockAdjustmentResultDTO bulk() {
+        return stockService.bulkAdjust(request);
+    }
+
+    @Benchmark
+    public void perItem(Blackhole blackhole) {
+        for (Long stockId : stockIds) {
+            blackhole.consume(stockService.adjustStock(stockId, 1));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.supplychain.warehouse.service;
+
+import com.example.supplychain.SupplyChainApplication;
+import com.example.supplychain.stock.repository.InventoryValuation;
+import com.example.supplychain.stock.repository.StockRepository;
+import com.example.supplychain.warehouse.dto.WarehouseZoneStockDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-warehouse units and value from the maintained aggregate versus the grouped
+ * stock-product join it replaced, over an h2 database seeded with one stock row per
+ * product and location. h2 runs in process, so the query side pays no network round
+ * trip and the gap on MySQL is wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarehouseStockAggregatorBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000"})
+    private int products;
+
+    @Param({"20"})
+    private int locations;
+
+    private ConfigurableApplicationContext context;
+    private WarehouseStockAggregator aggregator;
+    private StockRepository stockRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SupplyChainApplication.class)
+                .profiles("h2")
+                .web(WebApplicationType.NONE)
+                .run();
+        aggregator = context.getBean(WarehouseStockAggregator.class);
+        stockRepository = context.getBean(StockRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        aggregator.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public WarehouseZoneStockDTO aggregate() {
+        return aggregator.getTotals(null);
+    }
+
+    @Benchmark
+    public WarehouseZoneStockDTO aggregateZone() {
+        return aggregator.getTotals("Warehouse-Bench-1*");
+    }
+
+    @Benchmark
+    public List<InventoryValuation> groupedQuery() {
+        return stockRepository.valuationByWarehouse();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> productRows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            productRows.add(new Object[] {"BENCH-" + i, "Bench product " + i, "Bench",
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (product_code, product_name, category, unit_price, " +
+                "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, true, ?, ?)", productRows);
+
+        List<Long> productIds = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE product_code LIKE 'BENCH-%'", Long.class);
+        List<Object[]> stockRows = new ArrayList<>(BATCH_SIZE);
+        for (Long productId : productIds) {
+            for (int location = 0; location < locations; location++) {
+                stockRows.add(new Object[] {productId, random.nextInt(1_000),
+                        String.format("Warehouse-Bench-%02d", location), now, now});
+                if (stockRows.size() == BATCH_SIZE) {
+                    insertStocks(jdbcTemplate, stockRows);
+                }
+            }
+        }
+        insertStocks(jdbcTemplate, stockRows);
+    }
+
+    private static void insertStocks(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO stocks (product_id, quantity, minimum_level, maximum_level, " +
+                "warehouse_location, version, created_at, updated_at) VALUES (?, ?, 0, 1000, ?, 0, ?, ?)", rows);
+        rows.clear();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.supplychain.admin.controller;
 
 import com.example.supplychain.admin.service.AdminService;
+import com.example.supplychain.analytics.dto.RecomputeStatusDTO;
+import com.example.supplychain.analytics.service.AnalyticsRecomputeService;
 import com.example.supplychain.user.entity.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,9 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AnalyticsRecomputeService analyticsRecomputeService;
+
     @GetMapping("/users")
     @Operation(summary = "Get all users", description = "Retrieve all users in the system (ADMIN only)")
     public ResponseEntity<List<User>> getAllUsers() {
@@ -111,4 +116,17 @@ public class AdminController {
         stats.put("regularUsers", adminService.getRegularUsers().size());
         return ResponseEntity.ok(stats);
     }
+
+    @PostMapping("/analytics/recompute")
+    @Operation(summary = "Start analytics recompute", description = "Recompute sales counters with a partitioned parallel scan")
+    public ResponseEntity<RecomputeStatusDTO> startAnalyticsRecompute() {
+        RecomputeStatusDTO status = analyticsRecomputeService.start();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/analytics/recompute")
+    @Operation(summary = "Get analytics recompute status", description = "Progress and throughput of the current or last analytics recompute")
+    public ResponseEntity<RecomputeStatusDTO> getAnalyticsRecomputeStatus() {
+        return ResponseEntity.ok(analyticsRecomputeService.getStatus());
+    }
 }
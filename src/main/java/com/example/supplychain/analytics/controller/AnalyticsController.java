@@ -1,18 +1,36 @@
 package com.example.supplychain.analytics.controller;
 
+import com.example.supplychain.analytics.dto.DistinctCustomersDTO;
 import com.example.supplychain.analytics.dto.InventoryAnalyticsDTO;
+import com.example.supplychain.analytics.dto.OrderDistributionDTO;
+import com.example.supplychain.analytics.dto.ProductSalesDTO;
 import com.example.supplychain.analytics.dto.SalesAnalyticsDTO;
+import com.example.supplychain.analytics.dto.SalesBucketDTO;
+import com.example.supplychain.analytics.dto.SalesCountersDTO;
+import com.example.supplychain.analytics.dto.TopProductsDTO;
+import com.example.supplychain.analytics.entity.SalesRollup;
 import com.example.supplychain.analytics.service.AnalyticsService;
+import com.example.supplychain.analytics.service.DashboardStreamService;
+import com.example.supplychain.analytics.service.SalesSketchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,14 +41,111 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
     @GetMapping("/sales")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
-    @Operation(summary = "Get sales analytics", description = "Retrieve sales analytics data")
-    public ResponseEntity<SalesAnalyticsDTO> getSalesAnalytics() {
-        SalesAnalyticsDTO analytics = analyticsService.getSalesAnalytics();
+    @Operation(summary = "Get sales analytics", description = "Retrieve sales analytics data, optionally filtered by status, product and date range")
+    public ResponseEntity<SalesAnalyticsDTO> getSalesAnalytics(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        SalesAnalyticsDTO analytics = analyticsService.getSalesAnalytics(status, productId, from, to);
         return ResponseEntity.ok(analytics);
     }
 
+    @GetMapping("/sales/counters")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get sales counters", description = "Retrieve running sales totals overall, per status and per product")
+    public ResponseEntity<SalesCountersDTO> getSalesCounters() {
+        SalesCountersDTO counters = analyticsService.getSalesCounters();
+        return ResponseEntity.ok(counters);
+    }
+
+    @PostMapping("/sales/counters/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild sales counters", description = "Recompute running sales totals from the sales table")
+    public ResponseEntity<SalesCountersDTO> rebuildSalesCounters() {
+        analyticsService.rebuildSalesCounters();
+        return ResponseEntity.ok(analyticsService.getSalesCounters());
+    }
+
+    @GetMapping("/sales/timeseries")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get sales time series", description = "Retrieve revenue and quantity per hour, day or month from the sales rollups")
+    public ResponseEntity<List<SalesBucketDTO>> getSalesTimeseries(
+            @RequestParam(defaultValue = "DAY") SalesRollup.Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "90") int days,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String status) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(days);
+        List<SalesBucketDTO> buckets = analyticsService.getSalesTimeseries(granularity, start, end, productId, status);
+        return ResponseEntity.ok(buckets);
+    }
+
+    @PostMapping("/sales/timeseries/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild sales time series", description = "Recompute the sales rollups for the months covering a date range")
+    public ResponseEntity<Void> rebuildSalesTimeseries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        analyticsService.rebuildSalesTimeseries(from, to);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/sales/by-product")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get sales by product", description = "Group sales by product for an optional status and date range")
+    public ResponseEntity<List<ProductSalesDTO>> getSalesByProduct(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<ProductSalesDTO> sales = analyticsService.getSalesByProduct(status, from, to);
+        return ResponseEntity.ok(sales);
+    }
+
+    @GetMapping("/sales/top-products")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get top products", description = "Approximate best-selling products by quantity or revenue for a range of months")
+    public ResponseEntity<TopProductsDTO> getTopProducts(
+            @RequestParam(defaultValue = "QUANTITY") SalesSketchService.RankBy by,
+            @RequestParam(defaultValue = "20") @Min(1) int k,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        TopProductsDTO topProducts = analyticsService.getTopProducts(by, from != null ? from : end, end, k);
+        return ResponseEntity.ok(topProducts);
+    }
+
+    @GetMapping("/customers/distinct")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get distinct customers", description = "Approximate number of unique customers for a range of months")
+    public ResponseEntity<DistinctCustomersDTO> getDistinctCustomers(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        DistinctCustomersDTO customers = analyticsService.getDistinctCustomers(from != null ? from : end, end);
+        return ResponseEntity.ok(customers);
+    }
+
+    @GetMapping("/sales/distribution")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get order distribution", description = "p50/p90/p99 of order quantity and order value, overall or per product")
+    public ResponseEntity<OrderDistributionDTO> getOrderDistribution(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        OrderDistributionDTO distribution = analyticsService.getOrderDistribution(productId, start, end);
+        return ResponseEntity.ok(distribution);
+    }
+
     @GetMapping("/inventory")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     @Operation(summary = "Get inventory analytics", description = "Retrieve inventory analytics data")
@@ -43,12 +158,14 @@ public class AnalyticsController {
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     @Operation(summary = "Get dashboard summary", description = "Retrieve overall dashboard summary")
     public ResponseEntity<Map<String, Object>> getDashboardSummary() {
-        Map<String, Object> dashboard = new HashMap<>();
-        dashboard.put("totalProducts", analyticsService.getTotalProductCount());
-        dashboard.put("totalSuppliers", analyticsService.getTotalSupplierCount());
-        dashboard.put("totalSales", analyticsService.getTotalSalesCount());
-        dashboard.put("salesAnalytics", analyticsService.getSalesAnalytics());
-        dashboard.put("inventoryAnalytics", analyticsService.getInventoryAnalytics());
+        Map<String, Object> dashboard = analyticsService.getDashboardSummary();
         return ResponseEntity.ok(dashboard);
     }
+
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Stream dashboard updates", description = "Server-sent events: a full snapshot on connect, then changed sections as they happen")
+    public SseEmitter streamDashboard() {
+        return dashboardStreamService.subscribe();
+    }
 }
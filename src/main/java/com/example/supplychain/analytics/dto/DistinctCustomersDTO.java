@@ -0,0 +1,25 @@
+package com.example.supplychain.analytics.dto;
+
+public class DistinctCustomersDTO {
+
+    private String periodLabel;
+    private Long estimate;
+    private Double relativeStandardError;
+
+    public DistinctCustomersDTO() {}
+
+    public DistinctCustomersDTO(String periodLabel, Long estimate, Double relativeStandardError) {
+        this.periodLabel = periodLabel;
+        this.estimate = estimate;
+        this.relativeStandardError = relativeStandardError;
+    }
+
+    public String getPeriodLabel() { return periodLabel; }
+    public void setPeriodLabel(String periodLabel) { this.periodLabel = periodLabel; }
+
+    public Long getEstimate() { return estimate; }
+    public void setEstimate(Long estimate) { this.estimate = estimate; }
+
+    public Double getRelativeStandardError() { return relativeStandardError; }
+    public void setRelativeStandardError(Double relativeStandardError) { this.relativeStandardError = relativeStandardError; }
+}
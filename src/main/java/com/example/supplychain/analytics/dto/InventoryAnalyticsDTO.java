@@ -1,17 +1,20 @@
 package com.example.supplychain.analytics.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public class InventoryAnalyticsDTO {
 
     private Long totalProducts;
-    private Integer totalStockQuantity;
+    private Long totalStockQuantity;
     private Integer lowStockCount;
     private BigDecimal totalInventoryValue;
+    private List<InventoryBreakdownDTO> valueByCategory;
+    private List<InventoryBreakdownDTO> valueByWarehouse;
 
     public InventoryAnalyticsDTO() {}
 
-    public InventoryAnalyticsDTO(Long totalProducts, Integer totalStockQuantity, Integer lowStockCount) {
+    public InventoryAnalyticsDTO(Long totalProducts, Long totalStockQuantity, Integer lowStockCount) {
         this.totalProducts = totalProducts;
         this.totalStockQuantity = totalStockQuantity;
         this.lowStockCount = lowStockCount;
@@ -20,12 +23,18 @@ public class InventoryAnalyticsDTO {
     public Long getTotalProducts() { return totalProducts; }
     public void setTotalProducts(Long totalProducts) { this.totalProducts = totalProducts; }
 
-    public Integer getTotalStockQuantity() { return totalStockQuantity; }
-    public void setTotalStockQuantity(Integer totalStockQuantity) { this.totalStockQuantity = totalStockQuantity; }
+    public Long getTotalStockQuantity() { return totalStockQuantity; }
+    public void setTotalStockQuantity(Long totalStockQuantity) { this.totalStockQuantity = totalStockQuantity; }
 
     public Integer getLowStockCount() { return lowStockCount; }
     public void setLowStockCount(Integer lowStockCount) { this.lowStockCount = lowStockCount; }
 
     public BigDecimal getTotalInventoryValue() { return totalInventoryValue; }
     public void setTotalInventoryValue(BigDecimal totalInventoryValue) { this.totalInventoryValue = totalInventoryValue; }
+
+    public List<InventoryBreakdownDTO> getValueByCategory() { return valueByCategory; }
+    public void setValueByCategory(List<InventoryBreakdownDTO> valueByCategory) { this.valueByCategory = valueByCategory; }
+
+    public List<InventoryBreakdownDTO> getValueByWarehouse() { return valueByWarehouse; }
+    public void setValueByWarehouse(List<InventoryBreakdownDTO> valueByWarehouse) { this.valueByWarehouse = valueByWarehouse; }
 }
@@ -0,0 +1,27 @@
+package com.example.supplychain.analytics.dto;
+
+import java.math.BigDecimal;
+
+public class InventoryBreakdownDTO {
+
+    private String name;
+    private Long totalQuantity;
+    private BigDecimal totalValue;
+
+    public InventoryBreakdownDTO() {}
+
+    public InventoryBreakdownDTO(String name, Long totalQuantity, BigDecimal totalValue) {
+        this.name = name;
+        this.totalQuantity = totalQuantity;
+        this.totalValue = totalValue;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+}
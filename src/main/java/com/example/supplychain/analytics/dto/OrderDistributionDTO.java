@@ -0,0 +1,36 @@
+package com.example.supplychain.analytics.dto;
+
+public class OrderDistributionDTO {
+
+    private String periodLabel;
+    private Long productId;
+    private Long orderCount;
+    private PercentilesDTO quantity;
+    private PercentilesDTO totalAmount;
+
+    public OrderDistributionDTO() {}
+
+    public OrderDistributionDTO(String periodLabel, Long productId, Long orderCount,
+                                PercentilesDTO quantity, PercentilesDTO totalAmount) {
+        this.periodLabel = periodLabel;
+        this.productId = productId;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+    }
+
+    public String getPeriodLabel() { return periodLabel; }
+    public void setPeriodLabel(String periodLabel) { this.periodLabel = periodLabel; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public PercentilesDTO getQuantity() { return quantity; }
+    public void setQuantity(PercentilesDTO quantity) { this.quantity = quantity; }
+
+    public PercentilesDTO getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(PercentilesDTO totalAmount) { this.totalAmount = totalAmount; }
+}
@@ -0,0 +1,35 @@
+package com.example.supplychain.analytics.dto;
+
+public class PercentilesDTO {
+
+    private Double min;
+    private Double p50;
+    private Double p90;
+    private Double p99;
+    private Double max;
+
+    public PercentilesDTO() {}
+
+    public PercentilesDTO(Double min, Double p50, Double p90, Double p99, Double max) {
+        this.min = min;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public Double getMin() { return min; }
+    public void setMin(Double min) { this.min = min; }
+
+    public Double getP50() { return p50; }
+    public void setP50(Double p50) { this.p50 = p50; }
+
+    public Double getP90() { return p90; }
+    public void setP90(Double p90) { this.p90 = p90; }
+
+    public Double getP99() { return p99; }
+    public void setP99(Double p99) { this.p99 = p99; }
+
+    public Double getMax() { return max; }
+    public void setMax(Double max) { this.max = max; }
+}
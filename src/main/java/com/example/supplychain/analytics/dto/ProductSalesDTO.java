@@ -0,0 +1,32 @@
+package com.example.supplychain.analytics.dto;
+
+import java.math.BigDecimal;
+
+public class ProductSalesDTO {
+
+    private Long productId;
+    private Long orderCount;
+    private Long totalQuantity;
+    private BigDecimal totalRevenue;
+
+    public ProductSalesDTO() {}
+
+    public ProductSalesDTO(Long productId, Long orderCount, Long totalQuantity, BigDecimal totalRevenue) {
+        this.productId = productId;
+        this.orderCount = orderCount;
+        this.totalQuantity = totalQuantity;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+}
@@ -0,0 +1,47 @@
+package com.example.supplychain.analytics.dto;
+
+import java.time.LocalDateTime;
+
+public class RecomputeStatusDTO {
+
+    private String state;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Integer parallelism;
+    private Integer totalPartitions;
+    private Integer completedPartitions;
+    private Long rowsScanned;
+    private Long rowsPerSecond;
+    private String error;
+    private SalesAnalyticsDTO salesTotals;
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public Integer getParallelism() { return parallelism; }
+    public void setParallelism(Integer parallelism) { this.parallelism = parallelism; }
+
+    public Integer getTotalPartitions() { return totalPartitions; }
+    public void setTotalPartitions(Integer totalPartitions) { this.totalPartitions = totalPartitions; }
+
+    public Integer getCompletedPartitions() { return completedPartitions; }
+    public void setCompletedPartitions(Integer completedPartitions) { this.completedPartitions = completedPartitions; }
+
+    public Long getRowsScanned() { return rowsScanned; }
+    public void setRowsScanned(Long rowsScanned) { this.rowsScanned = rowsScanned; }
+
+    public Long getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(Long rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public SalesAnalyticsDTO getSalesTotals() { return salesTotals; }
+    public void setSalesTotals(SalesAnalyticsDTO salesTotals) { this.salesTotals = salesTotals; }
+}
@@ -5,14 +5,14 @@ import java.math.BigDecimal;
 public class SalesAnalyticsDTO {
 
     private Long totalOrders;
-    private Integer totalQuantitySold;
+    private Long totalQuantitySold;
     private BigDecimal totalRevenue;
     private String topProductId;
     private String periodLabel;
 
     public SalesAnalyticsDTO() {}
 
-    public SalesAnalyticsDTO(Long totalOrders, Integer totalQuantitySold, BigDecimal totalRevenue) {
+    public SalesAnalyticsDTO(Long totalOrders, Long totalQuantitySold, BigDecimal totalRevenue) {
         this.totalOrders = totalOrders;
         this.totalQuantitySold = totalQuantitySold;
         this.totalRevenue = totalRevenue;
@@ -21,8 +21,8 @@ public class SalesAnalyticsDTO {
     public Long getTotalOrders() { return totalOrders; }
     public void setTotalOrders(Long totalOrders) { this.totalOrders = totalOrders; }
 
-    public Integer getTotalQuantitySold() { return totalQuantitySold; }
-    public void setTotalQuantitySold(Integer totalQuantitySold) { this.totalQuantitySold = totalQuantitySold; }
+    public Long getTotalQuantitySold() { return totalQuantitySold; }
+    public void setTotalQuantitySold(Long totalQuantitySold) { this.totalQuantitySold = totalQuantitySold; }
 
     public BigDecimal getTotalRevenue() { return totalRevenue; }
     public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
@@ -0,0 +1,33 @@
+package com.example.supplychain.analytics.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class SalesBucketDTO {
+
+    private LocalDateTime bucketStart;
+    private Long orderCount;
+    private Long totalQuantity;
+    private BigDecimal totalRevenue;
+
+    public SalesBucketDTO() {}
+
+    public SalesBucketDTO(LocalDateTime bucketStart, Long orderCount, Long totalQuantity, BigDecimal totalRevenue) {
+        this.bucketStart = bucketStart;
+        this.orderCount = orderCount;
+        this.totalQuantity = totalQuantity;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+}
@@ -0,0 +1,28 @@
+package com.example.supplychain.analytics.dto;
+
+import java.util.Map;
+
+public class SalesCountersDTO {
+
+    private SalesAnalyticsDTO totals;
+    private Map<String, SalesAnalyticsDTO> byStatus;
+    private Map<Long, SalesAnalyticsDTO> byProduct;
+
+    public SalesCountersDTO() {}
+
+    public SalesCountersDTO(SalesAnalyticsDTO totals, Map<String, SalesAnalyticsDTO> byStatus,
+                            Map<Long, SalesAnalyticsDTO> byProduct) {
+        this.totals = totals;
+        this.byStatus = byStatus;
+        this.byProduct = byProduct;
+    }
+
+    public SalesAnalyticsDTO getTotals() { return totals; }
+    public void setTotals(SalesAnalyticsDTO totals) { this.totals = totals; }
+
+    public Map<String, SalesAnalyticsDTO> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, SalesAnalyticsDTO> byStatus) { this.byStatus = byStatus; }
+
+    public Map<Long, SalesAnalyticsDTO> getByProduct() { return byProduct; }
+    public void setByProduct(Map<Long, SalesAnalyticsDTO> byProduct) { this.byProduct = byProduct; }
+}
@@ -0,0 +1,27 @@
+package com.example.supplychain.analytics.dto;
+
+import java.math.BigDecimal;
+
+public class TopProductDTO {
+
+    private Long productId;
+    private BigDecimal estimate;
+    private BigDecimal maxOverestimate;
+
+    public TopProductDTO() {}
+
+    public TopProductDTO(Long productId, BigDecimal estimate, BigDecimal maxOverestimate) {
+        this.productId = productId;
+        this.estimate = estimate;
+        this.maxOverestimate = maxOverestimate;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public BigDecimal getEstimate() { return estimate; }
+    public void setEstimate(BigDecimal estimate) { this.estimate = estimate; }
+
+    public BigDecimal getMaxOverestimate() { return maxOverestimate; }
+    public void setMaxOverestimate(BigDecimal maxOverestimate) { this.maxOverestimate = maxOverestimate; }
+}
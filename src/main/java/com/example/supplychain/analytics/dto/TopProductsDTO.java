@@ -0,0 +1,39 @@
+package com.example.supplychain.analytics.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TopProductsDTO {
+
+    private String rankedBy;
+    private String periodLabel;
+    private List<TopProductDTO> products;
+    private BigDecimal totalWeight;
+    private BigDecimal errorBound;
+
+    public TopProductsDTO() {}
+
+    public TopProductsDTO(String rankedBy, String periodLabel, List<TopProductDTO> products,
+                          BigDecimal totalWeight, BigDecimal errorBound) {
+        this.rankedBy = rankedBy;
+        this.periodLabel = periodLabel;
+        this.products = products;
+        this.totalWeight = totalWeight;
+        this.errorBound = errorBound;
+    }
+
+    public String getRankedBy() { return rankedBy; }
+    public void setRankedBy(String rankedBy) { this.rankedBy = rankedBy; }
+
+    public String getPeriodLabel() { return periodLabel; }
+    public void setPeriodLabel(String periodLabel) { this.periodLabel = periodLabel; }
+
+    public List<TopProductDTO> getProducts() { return products; }
+    public void setProducts(List<TopProductDTO> products) { this.products = products; }
+
+    public BigDecimal getTotalWeight() { return totalWeight; }
+    public void setTotalWeight(BigDecimal totalWeight) { this.totalWeight = totalWeight; }
+
+    public BigDecimal getErrorBound() { return errorBound; }
+    public void setErrorBound(BigDecimal errorBound) { this.errorBound = errorBound; }
+}
@@ -0,0 +1,62 @@
+package com.example.supplychain.analytics.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sales_sketches",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_sketches_window",
+                columnNames = {"window_start", "sketch_type"}))
+public class SalesSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDate windowStart;
+
+    @Column(name = "sketch_type", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private SketchType sketchType;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public SalesSketch() {}
+
+    public SalesSketch(LocalDate windowStart, SketchType sketchType) {
+        this.windowStart = windowStart;
+        this.sketchType = sketchType;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalDate windowStart) { this.windowStart = windowStart; }
+
+    public SketchType getSketchType() { return sketchType; }
+    public void setSketchType(SketchType sketchType) { this.sketchType = sketchType; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public enum SketchType {
+        TOP_QUANTITY, TOP_REVENUE, CUSTOMERS
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.supplychain.analytics.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface SalesBucket {
+    LocalDateTime getBucketStart();
+    Long getOrderCount();
+    Long getTotalQuantity();
+    BigDecimal getTotalRevenue();
+}
@@ -0,0 +1,52 @@
+package com.example.supplychain.analytics.repository;
+
+import com.example.supplychain.analytics.entity.SalesRollup;
+import com.example.supplychain.sale.entity.Sale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE SalesRollup r SET r.orderCount = r.orderCount + :orders, " +
+            "r.totalQuantity = r.totalQuantity + :quantity, r.totalRevenue = r.totalRevenue + :revenue " +
+            "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart " +
+            "AND r.productId = :productId AND r.status = :status")
+    int addDelta(@Param("granularity") SalesRollup.Granularity granularity,
+                 @Param("bucketStart") LocalDateTime bucketStart,
+                 @Param("productId") Long productId,
+                 @Param("status") Sale.SaleStatus status,
+                 @Param("orders") long orders,
+                 @Param("quantity") long quantity,
+                 @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.orderCount) AS orderCount, " +
+            "SUM(r.totalQuantity) AS totalQuantity, SUM(r.totalRevenue) AS totalRevenue " +
+            "FROM SalesRollup r " +
+            "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:productId IS NULL OR r.productId = :productId) " +
+            "AND (:status IS NULL OR r.status = :status) " +
+            "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<SalesBucket> findBuckets(@Param("granularity") SalesRollup.Granularity granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to,
+                                  @Param("productId") Long productId,
+                                  @Param("status") Sale.SaleStatus status);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") SalesRollup.Granularity granularity,
+                        @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,13 @@
+package com.example.supplychain.analytics.repository;
+
+import com.example.supplychain.analytics.entity.SalesSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SalesSketchRepository extends JpaRepository<SalesSketch, Long> {
+    Optional<SalesSketch> findByWindowStartAndSketchType(LocalDate windowStart, SalesSketch.SketchType sketchType);
+}
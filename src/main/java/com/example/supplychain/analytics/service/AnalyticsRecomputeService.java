@@ -0,0 +1,275 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.RecomputeStatusDTO;
+import com.example.supplychain.analytics.dto.SalesAnalyticsDTO;
+import com.example.supplychain.analytics.dto.SalesCountersDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Full recompute of the sales counters. The sales table is split into id-range
+ * partitions that are streamed concurrently on virtual threads; a semaphore caps how
+ * many partitions hold a database connection at once so the job never takes more than
+ * half of the connection pool.
+ * <p>
+ * Each partition records what it read for every sale. When the new counters are
+ * swapped in, the live changes captured meanwhile are checked against those rows and
+ * only the ones the partition did not read are replayed on top (see
+ * {@link SalesCounterStore}). Sales past the highest id at the start were read by no
+ * partition, so all of their changes are replayed.
+ */
+@Service
+public class AnalyticsRecomputeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRecomputeService.class);
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesCounterStore salesCounterStore;
+
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${analytics.recompute.partition-size:100000}")
+    private long partitionSize;
+
+    @Value("${analytics.recompute.parallelism:4}")
+    private int parallelism;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    // the latest run, replaced as a whole so a status read never mixes fields of two
+    // runs; it is also the only gate for starting one, so a caller that has seen a run
+    // finish can always start the next
+    private final AtomicReference<Run> current = new AtomicReference<>(
+            new Run("IDLE", null, null, 0, 0, 0, 0, null, null, new Progress()));
+
+    public AnalyticsRecomputeService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public RecomputeStatusDTO start() {
+        Run previous = current.get();
+        Run run = new Run("RUNNING", LocalDateTime.now(), null, System.nanoTime(), 0, 0, 0,
+                null, null, new Progress());
+        if (previous.isRunning() || !current.compareAndSet(previous, run)) {
+            throw new RuntimeException("Analytics recompute is already running");
+        }
+        virtualThreadExecutor.execute(() -> run(run));
+        return getStatus();
+    }
+
+    private void run(Run run) {
+        int effectiveParallelism = Math.max(1, Math.min(parallelism, connectionPoolSize / 2));
+        Semaphore permits = new Semaphore(effectiveParallelism);
+        Progress progress = run.progress();
+        Run finished = null;
+        boolean capturing = false;
+        try {
+            salesCounterStore.beginCapture();
+            capturing = true;
+            Long minSaleId = saleRepository.findMinId();
+            Long maxSaleId = saleRepository.findMaxId();
+            List<long[]> salePartitions = partitions(minSaleId, maxSaleId);
+            run = new Run(run.state(), run.startedAt(), null, run.startedNanos(), 0, effectiveParallelism,
+                    salePartitions.size(), null, null, progress);
+            current.set(run);
+
+            ScannedSales[] scanned = new ScannedSales[salePartitions.size()];
+            List<CompletableFuture<SalesPartial>> salesFutures = new ArrayList<>(salePartitions.size());
+            for (int i = 0; i < salePartitions.size(); i++) {
+                int partition = i;
+                salesFutures.add(CompletableFuture.supplyAsync(() -> withPermit(permits, progress,
+                        () -> scanSales(salePartitions.get(partition), scanned, partition, progress)), virtualThreadExecutor));
+            }
+
+            SalesPartial sales = new SalesPartial();
+            salesFutures.forEach(future -> sales.merge(future.join()));
+
+            SalesCountersDTO counters = sales.toCounters();
+            salesCounterStore.replace(counters, saleId -> {
+                if (maxSaleId == null || saleId > maxSaleId || saleId < minSaleId) {
+                    return null;
+                }
+                return scanned[(int) ((saleId - minSaleId) / partitionSize)].fingerprintOf(saleId);
+            });
+            finished = run.finish("SUCCEEDED", null, counters.getTotals());
+        } catch (RuntimeException e) {
+            logger.error("Analytics recompute failed", e);
+            if (capturing) {
+                salesCounterStore.cancelCapture();
+            }
+            finished = run.finish("FAILED", e.getMessage(), null);
+        } finally {
+            if (finished == null) {
+                finished = run.finish("FAILED", "Recompute aborted", null);
+            }
+            current.set(finished);
+            logger.info("Analytics recompute {}: {} rows in {} partitions",
+                    finished.state(), progress.rowsScanned.sum(), finished.totalPartitions());
+        }
+    }
+
+    private List<long[]> partitions(Long minId, Long maxId) {
+        List<long[]> ranges = new ArrayList<>();
+        if (minId == null || maxId == null) {
+            return ranges;
+        }
+        for (long from = minId; from <= maxId; from += partitionSize) {
+            ranges.add(new long[]{from, Math.min(from + partitionSize, maxId + 1)});
+        }
+        return ranges;
+    }
+
+    private <T> T withPermit(Semaphore permits, Progress progress, Supplier<T> task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Analytics recompute interrupted", e);
+        }
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+            progress.completedPartitions.incrementAndGet();
+        }
+    }
+
+    private SalesPartial scanSales(long[] range, ScannedSales[] scanned, int partition, Progress progress) {
+        SalesPartial partial = new SalesPartial();
+        ScannedSales rows = new ScannedSales();
+        readOnlyTransaction.executeWithoutResult(tx -> {
+            try (Stream<SaleRow> stream = saleRepository.streamRowsByIdRange(range[0], range[1])) {
+                stream.forEach(row -> {
+                    partial.add(row);
+                    rows.add(row);
+                    progress.rowsScanned.increment();
+                });
+            }
+        });
+        scanned[partition] = rows;
+        return partial;
+    }
+
+    public RecomputeStatusDTO getStatus() {
+        Run run = current.get();
+        RecomputeStatusDTO status = new RecomputeStatusDTO();
+        status.setState(run.state());
+        status.setStartedAt(run.startedAt());
+        status.setFinishedAt(run.finishedAt());
+        status.setParallelism(run.parallelism());
+        status.setTotalPartitions(run.totalPartitions());
+        status.setCompletedPartitions(run.progress().completedPartitions.get());
+        long rows = run.progress().rowsScanned.sum();
+        status.setRowsScanned(rows);
+        if (run.startedAt() != null) {
+            long end = run.isRunning() ? System.nanoTime() : run.finishedNanos();
+            long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - run.startedNanos()));
+            status.setRowsPerSecond(rows * 1000 / elapsedMs);
+        }
+        status.setError(run.error());
+        status.setSalesTotals(run.salesTotals());
+        return status;
+    }
+
+    private record Run(String state, LocalDateTime startedAt, LocalDateTime finishedAt,
+                       long startedNanos, long finishedNanos, int parallelism, int totalPartitions,
+                       String error, SalesAnalyticsDTO salesTotals, Progress progress) {
+
+        boolean isRunning() {
+            return "RUNNING".equals(state);
+        }
+
+        Run finish(String state, String error, SalesAnalyticsDTO salesTotals) {
+            return new Run(state, startedAt, LocalDateTime.now(), startedNanos, System.nanoTime(), parallelism,
+                    totalPartitions, error, salesTotals, progress);
+        }
+    }
+
+    // counted from the partition threads, so shared by every Run of one recompute
+    private static class Progress {
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private final LongAdder rowsScanned = new LongAdder();
+    }
+
+    private static class Totals {
+        private long orders;
+        private long quantity;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        void add(long orders, long quantity, BigDecimal revenue) {
+            this.orders += orders;
+            this.quantity += quantity;
+            this.revenue = this.revenue.add(revenue);
+        }
+
+        SalesAnalyticsDTO toDTO() {
+            SalesAnalyticsDTO dto = new SalesAnalyticsDTO(orders, quantity, revenue);
+            dto.setPeriodLabel("All Time");
+            return dto;
+        }
+    }
+
+    private static class SalesPartial {
+        private final Totals total = new Totals();
+        private final Map<Sale.SaleStatus, Totals> byStatus = new EnumMap<>(Sale.SaleStatus.class);
+        private final Map<Long, Totals> byProduct = new HashMap<>();
+
+        void add(SaleRow row) {
+            total.add(1, row.getQuantity(), row.getTotalAmount());
+            byStatus.computeIfAbsent(row.getStatus(), s -> new Totals()).add(1, row.getQuantity(), row.getTotalAmount());
+            byProduct.computeIfAbsent(row.getProductId(), p -> new Totals()).add(1, row.getQuantity(), row.getTotalAmount());
+        }
+
+        void merge(SalesPartial other) {
+            total.add(other.total.orders, other.total.quantity, other.total.revenue);
+            other.byStatus.forEach((status, t) ->
+                    byStatus.computeIfAbsent(status, s -> new Totals()).add(t.orders, t.quantity, t.revenue));
+            other.byProduct.forEach((productId, t) ->
+                    byProduct.computeIfAbsent(productId, p -> new Totals()).add(t.orders, t.quantity, t.revenue));
+        }
+
+        SalesCountersDTO toCounters() {
+            Map<String, SalesAnalyticsDTO> statusTotals = new LinkedHashMap<>();
+            byStatus.forEach((status, t) -> statusTotals.put(status.name(), t.toDTO()));
+            Map<Long, SalesAnalyticsDTO> productTotals = new LinkedHashMap<>();
+            byProduct.forEach((productId, t) -> productTotals.put(productId, t.toDTO()));
+            return new SalesCountersDTO(total.toDTO(), statusTotals, productTotals);
+        }
+    }
+}
@@ -1,18 +1,48 @@
 package com.example.supplychain.analytics.service;
 
+import com.example.supplychain.analytics.dto.DistinctCustomersDTO;
 import com.example.supplychain.analytics.dto.InventoryAnalyticsDTO;
+import com.example.supplychain.analytics.dto.InventoryBreakdownDTO;
+import com.example.supplychain.analytics.dto.OrderDistributionDTO;
+import com.example.supplychain.analytics.dto.ProductSalesDTO;
 import com.example.supplychain.analytics.dto.SalesAnalyticsDTO;
+import com.example.supplychain.analytics.dto.SalesBucketDTO;
+import com.example.supplychain.analytics.dto.SalesCountersDTO;
+import com.example.supplychain.analytics.dto.TopProductsDTO;
+import com.example.supplychain.analytics.entity.SalesRollup;
 import com.example.supplychain.product.repository.ProductRepository;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.repository.SaleAggregate;
 import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.stock.repository.InventoryValuation;
 import com.example.supplychain.stock.repository.StockRepository;
+import com.example.supplychain.supplier.repository.SupplierRepository;
+import com.example.supplychain.warehouse.service.WarehouseStockAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Service
 public class AnalyticsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
     @Autowired
     private SaleRepository saleRepository;
 
@@ -22,47 +52,178 @@ public class AnalyticsService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private SalesCounterStore salesCounterStore;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesSketchService salesSketchService;
+
+    @Autowired
+    private SalesDistributionService salesDistributionService;
+
+    @Autowired(required = false)
+    private ColumnarSalesStore columnarSalesStore;
+
+    @Autowired
+    private WarehouseStockAggregator warehouseStockAggregator;
+
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+
+    @Value("${analytics.dashboard.section-timeout-ms:2000}")
+    private long dashboardSectionTimeoutMs;
+
     public SalesAnalyticsDTO getSalesAnalytics() {
-        long totalOrders = saleRepository.count();
-        Integer totalQuantitySold = saleRepository.findAll().stream()
-                .mapToInt(sale -> sale.getQuantity())
-                .sum();
-        BigDecimal totalRevenue = saleRepository.findAll().stream()
-                .map(sale -> sale.getTotalAmount())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        SalesAnalyticsDTO analytics = new SalesAnalyticsDTO(totalOrders, totalQuantitySold, totalRevenue);
-        analytics.setPeriodLabel("All Time");
+        return getSalesAnalytics(null, null, null, null);
+    }
+
+    public SalesAnalyticsDTO getSalesAnalytics(String status, Long productId, LocalDateTime from, LocalDateTime to) {
+        if (status == null && productId == null && from == null && to == null && salesCounterStore.isReady()) {
+            return salesCounterStore.getTotals();
+        }
+        Sale.SaleStatus saleStatus = status != null ? Sale.SaleStatus.valueOf(status.toUpperCase()) : null;
+        SaleAggregate aggregate = saleRepository.aggregate(saleStatus, productId, from, to);
+
+        SalesAnalyticsDTO analytics = new SalesAnalyticsDTO(
+                aggregate.getOrderCount(),
+                aggregate.getTotalQuantity(),
+                aggregate.getTotalRevenue());
+        analytics.setPeriodLabel(periodLabel(from, to));
         return analytics;
     }
 
+    private String periodLabel(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return "All Time";
+        }
+        return (from != null ? from.toString() : "Beginning") + " - " + (to != null ? to.toString() : "Now");
+    }
+
+    public List<SalesBucketDTO> getSalesTimeseries(SalesRollup.Granularity granularity, LocalDateTime from,
+                                                   LocalDateTime to, Long productId, String status) {
+        Sale.SaleStatus saleStatus = status != null ? Sale.SaleStatus.valueOf(status.toUpperCase()) : null;
+        return salesRollupService.getBuckets(granularity, from, to, productId, saleStatus);
+    }
+
+    public void rebuildSalesTimeseries(LocalDateTime from, LocalDateTime to) {
+        salesRollupService.rebuild(from, to);
+    }
+
+    public List<ProductSalesDTO> getSalesByProduct(String status, LocalDate from, LocalDate to) {
+        Sale.SaleStatus saleStatus = status != null ? Sale.SaleStatus.valueOf(status.toUpperCase()) : null;
+        if (columnarSalesStore != null) {
+            return columnarSalesStore.groupByProduct(saleStatus, from, to);
+        }
+        return saleRepository.aggregateByProduct(saleStatus,
+                        from != null ? from.atStartOfDay() : null,
+                        to != null ? to.plusDays(1).atStartOfDay() : null).stream()
+                .map(a -> new ProductSalesDTO(a.getProductId(), a.getOrderCount(), a.getTotalQuantity(), a.getTotalRevenue()))
+                .collect(Collectors.toList());
+    }
+
+    public TopProductsDTO getTopProducts(SalesSketchService.RankBy rankBy, YearMonth from, YearMonth to, int k) {
+        return salesSketchService.getTopProducts(rankBy, from, to, k);
+    }
+
+    public DistinctCustomersDTO getDistinctCustomers(YearMonth from, YearMonth to) {
+        return salesSketchService.getDistinctCustomers(from, to);
+    }
+
+    public OrderDistributionDTO getOrderDistribution(Long productId, LocalDate from, LocalDate to) {
+        return salesDistributionService.getDistribution(productId, from, to);
+    }
+
     public InventoryAnalyticsDTO getInventoryAnalytics() {
         long totalProducts = productRepository.count();
-        Integer totalStockQuantity = stockRepository.findAll().stream()
-                .mapToInt(stock -> stock.getQuantity())
-                .sum();
-        Integer lowStockCount = (int) stockRepository.findByQuantityLessThan(10).size();
-        BigDecimal totalInventoryValue = productRepository.findAll().stream()
-                .mapToDouble(product -> product.getUnitPrice().doubleValue())
-                .sum() > 0 ? BigDecimal.valueOf(stockRepository.findAll().stream()
-                .mapToDouble(stock -> stock.getQuantity())
-                .sum()) : BigDecimal.ZERO;
+        Long totalStockQuantity = stockRepository.sumQuantity();
+        Integer lowStockCount = (int) stockRepository.countBelowMinimumLevel();
 
         InventoryAnalyticsDTO analytics = new InventoryAnalyticsDTO(totalProducts, totalStockQuantity, lowStockCount);
-        analytics.setTotalInventoryValue(totalInventoryValue);
+        analytics.setTotalInventoryValue(stockRepository.sumInventoryValue());
+        analytics.setValueByCategory(toBreakdown(stockRepository.valuationByCategory()));
+        if (warehouseStockAggregator.isReady()) {
+            analytics.setValueByWarehouse(warehouseStockAggregator.getTotals(null).getWarehouses().stream()
+                    .map(w -> new InventoryBreakdownDTO(w.getWarehouseLocation(), w.getTotalQuantity(), w.getTotalValue()))
+                    .collect(Collectors.toList()));
+        } else {
+            analytics.setValueByWarehouse(toBreakdown(stockRepository.valuationByWarehouse()));
+        }
         return analytics;
     }
 
+    private List<InventoryBreakdownDTO> toBreakdown(List<InventoryValuation> valuations) {
+        return valuations.stream()
+                .map(v -> new InventoryBreakdownDTO(v.getName(), v.getTotalQuantity(), v.getTotalValue()))
+                .collect(Collectors.toList());
+    }
+
     public long getTotalProductCount() {
         return productRepository.count();
     }
 
     public long getTotalSupplierCount() {
-        // Implementation would use SupplierRepository
-        return 0;
+        return supplierRepository.count();
+    }
+
+    public SalesCountersDTO getSalesCounters() {
+        return salesCounterStore.getCounters();
+    }
+
+    public void rebuildSalesCounters() {
+        salesCounterStore.rebuild();
     }
 
     public long getTotalSalesCount() {
+        if (salesCounterStore.isReady()) {
+            return salesCounterStore.getTotals().getTotalOrders();
+        }
         return saleRepository.count();
     }
+
+    /**
+     * Builds the dashboard by running each section concurrently. A section that fails or
+     * does not finish within the section timeout is left out and listed under
+     * "unavailableSections" instead of holding up the whole response.
+     */
+    public Map<String, Object> getDashboardSummary() {
+        Map<String, Future<?>> sections = new LinkedHashMap<>();
+        sections.put("totalProducts", virtualThreadExecutor.submit(this::getTotalProductCount));
+        sections.put("totalSuppliers", virtualThreadExecutor.submit(this::getTotalSupplierCount));
+        sections.put("salesAnalytics", virtualThreadExecutor.submit(() -> getSalesAnalytics()));
+        sections.put("inventoryAnalytics", virtualThreadExecutor.submit(this::getInventoryAnalytics));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dashboardSectionTimeoutMs);
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, Future<?>> section : sections.entrySet()) {
+            Future<?> future = section.getValue();
+            try {
+                dashboard.put(section.getKey(), future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("Dashboard section {} timed out after {} ms", section.getKey(), dashboardSectionTimeoutMs);
+                unavailable.add(section.getKey());
+            } catch (ExecutionException e) {
+                logger.error("Dashboard section {} failed", section.getKey(), e.getCause());
+                unavailable.add(section.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                unavailable.add(section.getKey());
+            }
+        }
+
+        SalesAnalyticsDTO salesAnalytics = (SalesAnalyticsDTO) dashboard.get("salesAnalytics");
+        dashboard.put("totalSales", salesAnalytics != null ? salesAnalytics.getTotalOrders() : null);
+        if (!unavailable.isEmpty()) {
+            dashboard.put("unavailableSections", unavailable);
+        }
+        return dashboard;
+    }
 }
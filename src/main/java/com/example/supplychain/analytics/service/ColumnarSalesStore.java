@@ -0,0 +1,287 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.ProductSalesDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process, column-oriented copy of the sales table. Rows are kept
+ * sorted by sale id in parallel primitive arrays so group-by queries run as a
+ * single pass over contiguous memory without materializing entities.
+ * Enabled with {@code analytics.columnar.enabled=true}.
+ * <p>
+ * A (re)load builds a fresh set of columns without holding the lock and swaps it in,
+ * replaying the changes that arrived meanwhile, so queries and writes keep running
+ * against the old copy. Deleted rows are tombstoned and compacted away once they make
+ * up a quarter of the store.
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+public class ColumnarSalesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarSalesStore.class);
+    private static final byte DELETED = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION = 1024;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock; replaced wholesale by load()
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    // changes applied while a load is streaming, replayed onto the loaded copy
+    private List<SaleChangedEvent> duringLoad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (duringLoad != null) {
+                throw new IllegalStateException("Columnar sales store is already loading");
+            }
+            duringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns loaded = new Columns(INITIAL_CAPACITY);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<SaleRow> rows = saleRepository.streamAllRows()) {
+                    rows.forEach(row -> loaded.upsert(row.getId(), row.getProductId(), row.getQuantity(),
+                            row.getTotalAmount(), row.getStatus(), row.getCreatedAt()));
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                duringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int loadedSize;
+        lock.writeLock().lock();
+        try {
+            // upserts and deletes carry the full row state, so replaying every change in
+            // order is correct whether or not the stream already saw it
+            duringLoad.forEach(loaded::apply);
+            duringLoad = null;
+            loaded.compactIfSparse();
+            columns = loaded;
+            loadedSize = loaded.size - loaded.deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Loaded {} sales into the columnar store in {} ms", loadedSize, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            columns.apply(event);
+            if (duringLoad != null) {
+                duringLoad.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Groups sales by product for an optional status and inclusive date range,
+     * ordered by revenue descending.
+     */
+    public List<ProductSalesDTO> groupByProduct(Sale.SaleStatus saleStatus, LocalDate from, LocalDate to) {
+        int wanted = saleStatus != null ? saleStatus.ordinal() : DELETED;
+        int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+        int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+
+        Map<Long, long[]> groups = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            for (int i = 0; i < c.size; i++) {
+                byte s = c.status[i];
+                int day = c.createdEpochDay[i];
+                if (s == DELETED || (wanted != DELETED && s != wanted) || day < fromDay || day > toDay) {
+                    continue;
+                }
+                long[] totals = groups.computeIfAbsent(c.productId[i], p -> new long[3]);
+                totals[0]++;
+                totals[1] += c.quantity[i];
+                totals[2] += c.totalAmountCents[i];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ProductSalesDTO> result = new ArrayList<>(groups.size());
+        groups.forEach((product, totals) -> result.add(
+                new ProductSalesDTO(product, totals[0], totals[1], BigDecimal.valueOf(totals[2], 2))));
+        result.sort(Comparator.comparing(ProductSalesDTO::getTotalRevenue).reversed());
+        return result;
+    }
+
+    /**
+     * Live (not deleted) rows held by the store.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size - columns.deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One copy of the columns. Not thread-safe: the live copy is guarded by the store's
+     * lock, and a copy being loaded is only touched by the loading thread until swapped in.
+     */
+    private static final class Columns {
+
+        private long[] id;
+        private long[] productId;
+        private int[] quantity;
+        private long[] totalAmountCents;
+        private byte[] status;
+        private int[] createdEpochDay;
+        private int size;
+        private int deleted;
+
+        Columns(int capacity) {
+            id = new long[capacity];
+            productId = new long[capacity];
+            quantity = new int[capacity];
+            totalAmountCents = new long[capacity];
+            status = new byte[capacity];
+            createdEpochDay = new int[capacity];
+        }
+
+        void apply(SaleChangedEvent event) {
+            SaleSnapshot after = event.getAfter();
+            if (after != null) {
+                upsert(after.getId(), after.getProductId(), after.getQuantity(), after.getTotalAmount(),
+                        after.getStatus(), after.getCreatedAt());
+            } else {
+                delete(event.getBefore().getId());
+                compactIfSparse();
+            }
+        }
+
+        // Upserts keep replays idempotent: a change the load already saw just overwrites the same row.
+        void upsert(long saleId, long product, int qty, BigDecimal amount, Sale.SaleStatus saleStatus,
+                    LocalDateTime createdAt) {
+            int index = size > 0 && saleId <= id[size - 1] ? Arrays.binarySearch(id, 0, size, saleId) : -(size + 1);
+            if (index < 0) {
+                index = -index - 1;
+                ensureCapacity(size + 1);
+                if (index < size) {
+                    shiftRight(index);
+                }
+                size++;
+                id[index] = saleId;
+            } else if (status[index] == DELETED) {
+                deleted--;
+            }
+            productId[index] = product;
+            quantity[index] = qty;
+            totalAmountCents[index] = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+            status[index] = (byte) saleStatus.ordinal();
+            createdEpochDay[index] = createdAt != null ? (int) createdAt.toLocalDate().toEpochDay() : 0;
+        }
+
+        void delete(long saleId) {
+            int index = Arrays.binarySearch(id, 0, size, saleId);
+            if (index >= 0 && status[index] != DELETED) {
+                status[index] = DELETED;
+                deleted++;
+            }
+        }
+
+        /**
+         * Squeezes tombstones out in one pass once they are a quarter of the rows, so
+         * the cost is amortised over the deletes that created them.
+         */
+        void compactIfSparse() {
+            if (deleted < MIN_COMPACTION || deleted * 4 < size) {
+                return;
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (status[i] == DELETED) {
+                    continue;
+                }
+                if (kept != i) {
+                    id[kept] = id[i];
+                    productId[kept] = productId[i];
+                    quantity[kept] = quantity[i];
+                    totalAmountCents[kept] = totalAmountCents[i];
+                    status[kept] = status[i];
+                    createdEpochDay[kept] = createdEpochDay[i];
+                }
+                kept++;
+            }
+            size = kept;
+            deleted = 0;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= id.length) {
+                return;
+            }
+            int capacity = Math.max(required, id.length + (id.length >> 1));
+            id = Arrays.copyOf(id, capacity);
+            productId = Arrays.copyOf(productId, capacity);
+            quantity = Arrays.copyOf(quantity, capacity);
+            totalAmountCents = Arrays.copyOf(totalAmountCents, capacity);
+            status = Arrays.copyOf(status, capacity);
+            createdEpochDay = Arrays.copyOf(createdEpochDay, capacity);
+        }
+
+        private void shiftRight(int index) {
+            int length = size - index;
+            System.arraycopy(id, index, id, index + 1, length);
+            System.arraycopy(productId, index, productId, index + 1, length);
+            System.arraycopy(quantity, index, quantity, index + 1, length);
+            System.arraycopy(totalAmountCents, index, totalAmountCents, index + 1, length);
+            System.arraycopy(status, index, status, index + 1, length);
+            System.arraycopy(createdEpochDay, index, createdEpochDay, index + 1, length);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes dashboard changes to SSE subscribers. Sale and stock writes only mark the
+ * dashboard dirty; at most once per interval a single snapshot is computed and the
+ * sections that changed are fanned out to every subscriber. Each subscriber has a
+ * one-slot mailbox, so updates to a slow client are conflated rather than queued,
+ * and a client stuck in a send for longer than the slow-consumer timeout is dropped.
+ * <p>
+ * A new subscriber's snapshot goes through the same mailbox, queued and registered
+ * under the lock that publishing holds, so every delta computed after that snapshot
+ * reaches it and none computed before it does.
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+
+    @Value("${analytics.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${analytics.stream.slow-consumer-timeout-ms:10000}")
+    private long slowConsumerTimeoutMs;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final Object publishLock = new Object();
+    private volatile Map<String, JsonNode> lastSnapshot = Map.of();
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (publishLock) {
+            Map<String, JsonNode> snapshot = lastSnapshot;
+            if (snapshot.isEmpty()) {
+                snapshot = computeSnapshot();
+            }
+            subscriber.offer("snapshot", snapshot);
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.stream.interval-ms:2000}")
+    public void publish() {
+        dropSlowConsumers();
+        synchronized (publishLock) {
+            if (subscribers.isEmpty() || !dirty.getAndSet(false)) {
+                return;
+            }
+            Map<String, JsonNode> previous = lastSnapshot;
+            Map<String, JsonNode> current = computeSnapshot();
+            Map<String, JsonNode> delta = new LinkedHashMap<>();
+            current.forEach((section, value) -> {
+                if (!value.equals(previous.get(section))) {
+                    delta.put(section, value);
+                }
+            });
+            if (!delta.isEmpty()) {
+                subscribers.forEach(subscriber -> subscriber.offer("delta", delta));
+            }
+        }
+    }
+
+    private Map<String, JsonNode> computeSnapshot() {
+        Map<String, JsonNode> snapshot = new LinkedHashMap<>();
+        analyticsService.getDashboardSummary().forEach((section, value) -> snapshot.put(section, objectMapper.valueToTree(value)));
+        lastSnapshot = snapshot;
+        return snapshot;
+    }
+
+    private void dropSlowConsumers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > TimeUnit.MILLISECONDS.toNanos(slowConsumerTimeoutMs)) {
+                logger.warn("Dropping dashboard subscriber stuck in a send for over {} ms", slowConsumerTimeoutMs);
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private Map<String, JsonNode> pending;
+        private String pendingEvent;
+        private volatile long sendStartedNanos;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Sections are full values, so merging an unsent delta into the next one loses
+        // nothing, and a snapshot with later deltas merged in is still a snapshot.
+        void offer(String event, Map<String, JsonNode> sections) {
+            synchronized (this) {
+                if (pending == null) {
+                    pending = new LinkedHashMap<>();
+                    pendingEvent = event;
+                }
+                pending.putAll(sections);
+            }
+            if (sending.compareAndSet(false, true)) {
+                virtualThreadExecutor.execute(this::drain);
+            }
+        }
+
+        private synchronized SseEmitter.SseEventBuilder take() {
+            if (pending == null) {
+                return null;
+            }
+            SseEmitter.SseEventBuilder next = SseEmitter.event().name(pendingEvent).data(pending);
+            pending = null;
+            return next;
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder next;
+                while ((next = take()) != null) {
+                    sendStartedNanos = System.nanoTime();
+                    emitter.send(next);
+                    sendStartedNanos = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sendStartedNanos = 0;
+                sending.set(false);
+            }
+            synchronized (this) {
+                if (pending == null) {
+                    return;
+                }
+            }
+            if (sending.compareAndSet(false, true)) {
+                virtualThreadExecutor.execute(this::drain);
+            }
+        }
+    }
+}
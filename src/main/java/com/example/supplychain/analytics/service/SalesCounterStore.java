@@ -0,0 +1,225 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.SalesAnalyticsDTO;
+import com.example.supplychain.analytics.dto.SalesCountersDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Running sales totals kept in step with the sales table. Deltas are applied
+ * only after the sale transaction commits, so rolled-back writes never show up.
+ * <p>
+ * Counters recomputed from a scan of the table are swapped in with {@link #replace}.
+ * Events applied while the scan runs are captured, and each sale's captured changes
+ * are checked against the row the scan read for it: only the changes after that state
+ * are replayed. A change therefore counts exactly once after the swap, whether it
+ * committed before or after the scan's snapshot and whenever its listener ran.
+ * The one thing this cannot fix is two changes to the same sale whose listeners run
+ * out of commit order; that skews the live counters as well, until the next rebuild.
+ */
+@Component
+public class SalesCounterStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesCounterStore.class);
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Counter total = new Counter();
+    private final Map<Sale.SaleStatus, Counter> byStatus = new EnumMap<>(Sale.SaleStatus.class);
+    private final Map<Long, Counter> byProduct = new HashMap<>();
+    private volatile boolean ready;
+    // events applied while a scan runs, so the replacement can pick out the ones it missed
+    private List<Applied> captured;
+
+    /**
+     * Recomputes the counters from one streamed pass over the sales table, run outside
+     * the monitor so sale writes keep being applied meanwhile, and swaps the result in
+     * like a recompute.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        beginCapture();
+        SalesCountersDTO counters;
+        ScannedSales scanned = new ScannedSales();
+        try {
+            Counter rebuiltTotal = new Counter();
+            Map<Sale.SaleStatus, Counter> rebuiltByStatus = new EnumMap<>(Sale.SaleStatus.class);
+            Map<Long, Counter> rebuiltByProduct = new HashMap<>();
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<SaleRow> rows = saleRepository.streamAllRows()) {
+                    rows.forEach(row -> {
+                        rebuiltTotal.add(1, row.getQuantity(), row.getTotalAmount());
+                        rebuiltByStatus.computeIfAbsent(row.getStatus(), s -> new Counter())
+                                .add(1, row.getQuantity(), row.getTotalAmount());
+                        rebuiltByProduct.computeIfAbsent(row.getProductId(), p -> new Counter())
+                                .add(1, row.getQuantity(), row.getTotalAmount());
+                        scanned.add(row);
+                    });
+                }
+            });
+            counters = toCounters(rebuiltTotal, rebuiltByStatus, rebuiltByProduct);
+        } catch (RuntimeException e) {
+            cancelCapture();
+            throw e;
+        }
+        replace(counters, scanned);
+        logger.info("Rebuilt sales counters: {} orders across {} products",
+                counters.getTotals().getTotalOrders(), counters.getByProduct().size());
+    }
+
+    /**
+     * Starts capturing applied events for a scan that will end in {@link #replace}.
+     */
+    public synchronized void beginCapture() {
+        if (captured != null) {
+            throw new IllegalStateException("Sales counters are already being recomputed");
+        }
+        captured = new ArrayList<>();
+    }
+
+    /**
+     * Swaps in counters computed by a scan, then replays, sale by sale, the captured
+     * changes that came after the state the scan read for that sale, and ends the capture.
+     */
+    public synchronized void replace(SalesCountersDTO counters, ScanView scanView) {
+        reset(counters);
+        Map<Long, List<SaleChangedEvent>> changesBySale = new LinkedHashMap<>();
+        for (Applied applied : captured) {
+            changesBySale.computeIfAbsent(applied.saleId(), id -> new ArrayList<>()).add(applied.event());
+        }
+        int replayed = 0;
+        for (Map.Entry<Long, List<SaleChangedEvent>> entry : changesBySale.entrySet()) {
+            List<SaleChangedEvent> changes = entry.getValue();
+            int seen = scanView.changesSeen(entry.getKey(), changes);
+            if (seen < 0) {
+                logger.warn("Scan read a state of sale {} that none of its live changes explains, replaying them all",
+                        entry.getKey());
+                seen = 0;
+            }
+            for (SaleChangedEvent change : changes.subList(seen, changes.size())) {
+                apply(change);
+                replayed++;
+            }
+        }
+        logger.debug("Replaced sales counters, replaying {} of {} live changes", replayed, captured.size());
+        captured = null;
+        ready = true;
+    }
+
+    private void reset(SalesCountersDTO counters) {
+        total.reset();
+        byStatus.clear();
+        byProduct.clear();
+        total.add(counters.getTotals());
+        counters.getByStatus().forEach((status, totals) ->
+                byStatus.computeIfAbsent(Sale.SaleStatus.valueOf(status), s -> new Counter()).add(totals));
+        counters.getByProduct().forEach((productId, totals) ->
+                byProduct.computeIfAbsent(productId, p -> new Counter()).add(totals));
+    }
+
+    public synchronized void cancelCapture() {
+        captured = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSaleChanged(SaleChangedEvent event) {
+        apply(event);
+        if (captured != null) {
+            SaleSnapshot sale = event.getAfter() != null ? event.getAfter() : event.getBefore();
+            captured.add(new Applied(sale.getId(), event));
+        }
+    }
+
+    private void apply(SaleChangedEvent event) {
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1);
+        }
+    }
+
+    private void apply(SaleSnapshot sale, int sign) {
+        BigDecimal revenue = sign > 0 ? sale.getTotalAmount() : sale.getTotalAmount().negate();
+        total.add(sign, (long) sign * sale.getQuantity(), revenue);
+        byStatus.computeIfAbsent(sale.getStatus(), s -> new Counter())
+                .add(sign, (long) sign * sale.getQuantity(), revenue);
+        byProduct.computeIfAbsent(sale.getProductId(), p -> new Counter())
+                .add(sign, (long) sign * sale.getQuantity(), revenue);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized SalesAnalyticsDTO getTotals() {
+        return total.toDTO();
+    }
+
+    public synchronized SalesCountersDTO getCounters() {
+        return toCounters(total, byStatus, byProduct);
+    }
+
+    private static SalesCountersDTO toCounters(Counter total, Map<Sale.SaleStatus, Counter> byStatus,
+                                               Map<Long, Counter> byProduct) {
+        Map<String, SalesAnalyticsDTO> statusTotals = new LinkedHashMap<>();
+        byStatus.forEach((status, counter) -> statusTotals.put(status.name(), counter.toDTO()));
+        Map<Long, SalesAnalyticsDTO> productTotals = new LinkedHashMap<>();
+        byProduct.forEach((productId, counter) -> productTotals.put(productId, counter.toDTO()));
+        return new SalesCountersDTO(total.toDTO(), statusTotals, productTotals);
+    }
+
+    private record Applied(Long saleId, SaleChangedEvent event) {}
+
+    private static class Counter {
+        private long orders;
+        private long quantity;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        void add(long orders, long quantity, BigDecimal revenue) {
+            this.orders += orders;
+            this.quantity += quantity;
+            this.revenue = this.revenue.add(revenue);
+        }
+
+        void add(SalesAnalyticsDTO totals) {
+            add(totals.getTotalOrders(), totals.getTotalQuantitySold(), totals.getTotalRevenue());
+        }
+
+        void reset() {
+            orders = 0;
+            quantity = 0;
+            revenue = BigDecimal.ZERO;
+        }
+
+        SalesAnalyticsDTO toDTO() {
+            SalesAnalyticsDTO dto = new SalesAnalyticsDTO(orders, quantity, revenue);
+            dto.setPeriodLabel("All Time");
+            return dto;
+        }
+    }
+}
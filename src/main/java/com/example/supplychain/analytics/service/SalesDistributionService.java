@@ -0,0 +1,170 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.OrderDistributionDTO;
+import com.example.supplychain.analytics.dto.PercentilesDTO;
+import com.example.supplychain.analytics.sketch.TDigest;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Per-day t-digests of order quantity and order value, overall and per product,
+ * fed from sale inserts. Days older than the retention window are dropped, so
+ * memory is bounded by retention days x active products x sketch size.
+ * <p>
+ * Inserts that arrive while the startup scan runs are held back; once the scan is
+ * done, only those for sales it did not read are recorded, so a sale committed just
+ * before the scan's snapshot is counted once whenever its listener runs.
+ */
+@Service
+public class SalesDistributionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesDistributionService.class);
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.quantiles.compression:100}")
+    private double compression;
+
+    @Value("${analytics.quantiles.retention-days:90}")
+    private int retentionDays;
+
+    private final Map<LocalDate, Digests> daily = new HashMap<>();
+    private final Map<LocalDate, Map<Long, Digests>> dailyByProduct = new HashMap<>();
+    // inserts held back while load() scans, guarded by this
+    private List<SaleSnapshot> duringLoad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            if (duringLoad != null) {
+                throw new IllegalStateException("Order distribution sketches are already loading");
+            }
+            duringLoad = new ArrayList<>();
+        }
+        LocalDateTime from = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        LocalDateTime to = LocalDate.now().plusDays(1).atStartOfDay();
+        ScannedSales scanned = new ScannedSales();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<SaleRow> rows = saleRepository.streamRows(from, to)) {
+                    rows.forEach(row -> {
+                        record(row.getCreatedAt(), row.getProductId(), row.getQuantity(), row.getTotalAmount());
+                        scanned.add(row);
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            endLoad(new ScannedSales());
+            throw e;
+        }
+        int held = endLoad(scanned);
+        logger.info("Loaded order distribution sketches for {} days, {} inserts arrived during the scan",
+                daily.size(), held);
+    }
+
+    // records the held-back inserts the scan did not read and stops holding them back
+    private synchronized int endLoad(ScannedSales scanned) {
+        int held = duringLoad.size();
+        for (SaleSnapshot sale : duringLoad) {
+            if (scanned.fingerprintOf(sale.getId()) == null) {
+                record(sale.getCreatedAt(), sale.getProductId(), sale.getQuantity(), sale.getTotalAmount());
+            }
+        }
+        duringLoad = null;
+        return held;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSaleChanged(SaleChangedEvent event) {
+        SaleSnapshot sale = event.getAfter();
+        if (event.getBefore() == null && sale != null) {
+            if (duringLoad != null) {
+                duringLoad.add(sale);
+            } else {
+                record(sale.getCreatedAt(), sale.getProductId(), sale.getQuantity(), sale.getTotalAmount());
+            }
+        }
+    }
+
+    private synchronized void record(LocalDateTime createdAt, Long productId, int quantity, BigDecimal totalAmount) {
+        LocalDate day = createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+        double amount = totalAmount.doubleValue();
+        daily.computeIfAbsent(day, d -> new Digests(compression)).add(quantity, amount);
+        dailyByProduct.computeIfAbsent(day, d -> new HashMap<>())
+                .computeIfAbsent(productId, p -> new Digests(compression))
+                .add(quantity, amount);
+    }
+
+    @Scheduled(cron = "${analytics.quantiles.eviction-cron:0 5 0 * * *}")
+    public synchronized void evictExpiredDays() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        daily.keySet().removeIf(day -> day.isBefore(cutoff));
+        dailyByProduct.keySet().removeIf(day -> day.isBefore(cutoff));
+    }
+
+    /**
+     * Merges the daily sketches in the inclusive range [from, to], optionally for a single product.
+     */
+    public synchronized OrderDistributionDTO getDistribution(Long productId, LocalDate from, LocalDate to) {
+        Digests merged = new Digests(compression);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Digests digests = productId == null
+                    ? daily.get(day)
+                    : dailyByProduct.getOrDefault(day, Map.of()).get(productId);
+            if (digests != null) {
+                merged.quantity.merge(digests.quantity);
+                merged.totalAmount.merge(digests.totalAmount);
+            }
+        }
+        return new OrderDistributionDTO(from + " - " + to, productId, merged.quantity.getCount(),
+                toPercentiles(merged.quantity), toPercentiles(merged.totalAmount));
+    }
+
+    private PercentilesDTO toPercentiles(TDigest digest) {
+        if (digest.getCount() == 0) {
+            return new PercentilesDTO();
+        }
+        return new PercentilesDTO(digest.getMin(), digest.quantile(0.5), digest.quantile(0.9),
+                digest.quantile(0.99), digest.getMax());
+    }
+
+    private static class Digests {
+        private final TDigest quantity;
+        private final TDigest totalAmount;
+
+        Digests(double compression) {
+            this.quantity = new TDigest(compression);
+            this.totalAmount = new TDigest(compression);
+        }
+
+        void add(int quantity, double totalAmount) {
+            this.quantity.add(quantity);
+            this.totalAmount.add(totalAmount);
+        }
+    }
+}
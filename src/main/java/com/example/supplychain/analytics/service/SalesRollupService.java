@@ -0,0 +1,293 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.SalesBucketDTO;
+import com.example.supplychain.analytics.entity.SalesRollup;
+import com.example.supplychain.analytics.entity.SalesRollup.Granularity;
+import com.example.supplychain.analytics.repository.SalesRollupRepository;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains hourly, daily and monthly sales buckets per product and status.
+ * Committed sale changes are buffered as deltas and flushed in one transaction
+ * per interval; hourly buckets are compacted away once older than the retention
+ * window, leaving the daily and monthly buckets to answer longer ranges.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.rollup.hourly-retention-days:30}")
+    private int hourlyRetentionDays;
+
+    private final Map<RollupKey, RollupDelta> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    // events hold the read side, switching the month being rebuilt takes the write side
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private Rebuild rebuilding;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        rebuildLock.readLock().lock();
+        try {
+            Rebuild rebuild = rebuilding;
+            if (rebuild != null && (rebuild.covers(event.getBefore()) || rebuild.covers(event.getAfter()))) {
+                rebuild.defer(event);
+            } else {
+                record(pending, event, change -> true);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    // adds the change to target, or to pending for a side of it that target does not cover
+    private void record(Map<RollupKey, RollupDelta> target, SaleChangedEvent event, Predicate<SaleSnapshot> covered) {
+        if (event.getBefore() != null) {
+            record(covered.test(event.getBefore()) ? target : pending, event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            record(covered.test(event.getAfter()) ? target : pending, event.getAfter(), 1);
+        }
+    }
+
+    private void record(Map<RollupKey, RollupDelta> target, SaleSnapshot sale, int sign) {
+        if (sale.getCreatedAt() == null) {
+            return;
+        }
+        RollupDelta delta = new RollupDelta(sign, (long) sign * sale.getQuantity(),
+                sign > 0 ? sale.getTotalAmount() : sale.getTotalAmount().negate());
+        addToAllGranularities(target, sale.getCreatedAt(), sale.getProductId(), sale.getStatus(), delta);
+    }
+
+    private void addToAllGranularities(Map<RollupKey, RollupDelta> target, LocalDateTime createdAt,
+                                       Long productId, Sale.SaleStatus status, RollupDelta delta) {
+        for (Granularity granularity : Granularity.values()) {
+            RollupKey key = new RollupKey(granularity, granularity.truncate(createdAt), productId, status);
+            target.merge(key, delta, RollupDelta::plus);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, RollupDelta> batch = new HashMap<>();
+        for (RollupKey key : pending.keySet()) {
+            RollupDelta delta = pending.remove(key);
+            if (delta != null && !delta.isZero()) {
+                batch.put(key, delta);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::upsert));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush {} sales rollup deltas, retrying on next interval", batch.size(), e);
+            batch.forEach((key, delta) -> pending.merge(key, delta, RollupDelta::plus));
+        }
+    }
+
+    private void upsert(RollupKey key, RollupDelta delta) {
+        int updated = salesRollupRepository.addDelta(key.granularity(), key.bucketStart(), key.productId(),
+                key.status(), delta.orders(), delta.quantity(), delta.revenue());
+        if (updated == 0) {
+            salesRollupRepository.save(new SalesRollup(key.granularity(), key.bucketStart(), key.productId(),
+                    key.status(), delta.orders(), delta.quantity(), delta.revenue()));
+        }
+    }
+
+    @Scheduled(cron = "${analytics.rollup.compaction-cron:0 15 * * * *}")
+    public void compact() {
+        LocalDateTime cutoff = Granularity.DAY.truncate(LocalDateTime.now()).minusDays(hourlyRetentionDays);
+        Integer purged = transactionTemplate.execute(status ->
+                salesRollupRepository.deleteOlderThan(Granularity.HOUR, cutoff));
+        logger.info("Compacted {} hourly sales buckets older than {}", purged, cutoff);
+    }
+
+    /**
+     * Recomputes every bucket in the months covering [from, to) from the sales table,
+     * one month at a time so the working set stays bounded. Each month is scanned into
+     * fresh buckets and swapped in with one transaction; flushes keep running during the
+     * scan and are only held off for the swap. Changes to that month which arrive during
+     * the scan are held back, and once it is done only those the scan had not read are
+     * added on top (see {@link ScanView}), so the old buckets stay readable until the
+     * swap and no change is counted twice.
+     */
+    public synchronized void rebuild(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime month = Granularity.MONTH.truncate(from);
+        while (month.isBefore(to)) {
+            LocalDateTime monthEnd = Granularity.MONTH.next(month);
+            rebuildRange(month, monthEnd);
+            month = monthEnd;
+        }
+    }
+
+    private void rebuildRange(LocalDateTime from, LocalDateTime to) {
+        Rebuild rebuild = new Rebuild(from, to, new ConcurrentHashMap<>());
+        // whatever is still pending for the month has committed, so the scan will see it
+        Map<RollupKey, RollupDelta> superseded = new HashMap<>();
+        rebuildLock.writeLock().lock();
+        try {
+            rebuilding = rebuild;
+            pending.keySet().removeIf(key -> {
+                if (rebuild.covers(key.bucketStart())) {
+                    superseded.put(key, pending.get(key));
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        Map<RollupKey, RollupDelta> totals = new HashMap<>();
+        ScannedSales scanned = new ScannedSales();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<SaleRow> rows = saleRepository.streamRows(from, to)) {
+                    rows.forEach(row -> {
+                        addToAllGranularities(totals, row.getCreatedAt(), row.getProductId(),
+                                row.getStatus(), new RollupDelta(1, row.getQuantity(), row.getTotalAmount()));
+                        scanned.add(row);
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            abandon(superseded, rebuild);
+            throw e;
+        }
+
+        // a flush must not write deltas for the month into the old buckets between here
+        // and the swap, or deleteRange would drop them
+        synchronized (flushLock) {
+            // changes committing from here on go to pending and are flushed after the swap
+            rebuildLock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+            int replayed = 0;
+            for (Map.Entry<Long, List<SaleChangedEvent>> entry : rebuild.deferred().entrySet()) {
+                List<SaleChangedEvent> changes = entry.getValue();
+                int seen = scanned.changesSeen(entry.getKey(), changes);
+                if (seen < 0) {
+                    logger.warn("Rollup scan read a state of sale {} that none of its live changes explains, "
+                            + "adding them all", entry.getKey());
+                    seen = 0;
+                }
+                for (SaleChangedEvent change : changes.subList(seen, changes.size())) {
+                    record(totals, change, sale -> rebuild.covers(sale));
+                    replayed++;
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    salesRollupRepository.deleteRange(from, to);
+                    totals.forEach((key, delta) -> {
+                        if (!delta.isZero()) {
+                            salesRollupRepository.save(new SalesRollup(key.granularity(), key.bucketStart(),
+                                    key.productId(), key.status(), delta.orders(), delta.quantity(), delta.revenue()));
+                        }
+                    });
+                });
+            } catch (RuntimeException e) {
+                abandon(superseded, rebuild);
+                throw e;
+            }
+            logger.info("Rebuilt {} sales buckets for {} - {}, adding {} live changes", totals.size(), from, to, replayed);
+        }
+    }
+
+    // the old buckets are still in place, so they need every delta taken off pending for the rebuild
+    private void abandon(Map<RollupKey, RollupDelta> superseded, Rebuild rebuild) {
+        rebuildLock.writeLock().lock();
+        try {
+            rebuilding = null;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        superseded.forEach((key, delta) -> pending.merge(key, delta, RollupDelta::plus));
+        rebuild.deferred().values().forEach(changes -> changes.forEach(change -> record(pending, change, sale -> true)));
+    }
+
+    public List<SalesBucketDTO> getBuckets(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                           Long productId, Sale.SaleStatus status) {
+        return salesRollupRepository.findBuckets(granularity, granularity.truncate(from), to, productId, status).stream()
+                .map(b -> new SalesBucketDTO(b.getBucketStart(), b.getOrderCount(), b.getTotalQuantity(), b.getTotalRevenue()))
+                .collect(Collectors.toList());
+    }
+
+    // deferred holds each sale's changes in the order they arrived
+    private record Rebuild(LocalDateTime from, LocalDateTime to, Map<Long, List<SaleChangedEvent>> deferred) {
+        boolean covers(LocalDateTime time) {
+            return !time.isBefore(from) && time.isBefore(to);
+        }
+
+        boolean covers(SaleSnapshot sale) {
+            return sale != null && sale.getCreatedAt() != null && covers(sale.getCreatedAt());
+        }
+
+        void defer(SaleChangedEvent event) {
+            SaleSnapshot sale = event.getAfter() != null ? event.getAfter() : event.getBefore();
+            deferred.compute(sale.getId(), (id, changes) -> {
+                List<SaleChangedEvent> list = changes != null ? changes : new ArrayList<>();
+                list.add(event);
+                return list;
+            });
+        }
+    }
+
+    private record RollupKey(Granularity granularity, LocalDateTime bucketStart, Long productId, Sale.SaleStatus status) {}
+
+    private record RollupDelta(long orders, long quantity, BigDecimal revenue) {
+        RollupDelta plus(RollupDelta other) {
+            return new RollupDelta(orders + other.orders, quantity + other.quantity, revenue.add(other.revenue));
+        }
+
+        boolean isZero() {
+            return orders == 0 && quantity == 0 && revenue.signum() == 0;
+        }
+    }
+}
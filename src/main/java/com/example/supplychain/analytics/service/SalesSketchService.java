@@ -0,0 +1,200 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.DistinctCustomersDTO;
+import com.example.supplychain.analytics.dto.TopProductDTO;
+import com.example.supplychain.analytics.dto.TopProductsDTO;
+import com.example.supplychain.analytics.entity.SalesSketch;
+import com.example.supplychain.analytics.repository.SalesSketchRepository;
+import com.example.supplychain.analytics.sketch.HyperLogLog;
+import com.example.supplychain.analytics.sketch.SpaceSaving;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Monthly Space-Saving (top products) and HyperLogLog (distinct customers) sketches,
+ * fed from sale inserts. Windows are merged on read and persisted periodically.
+ * Sketches only grow: later updates or deletions of a sale are not subtracted.
+ */
+@Service
+public class SalesSketchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesSketchService.class);
+
+    @Autowired
+    private SalesSketchRepository salesSketchRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.sketch.top-k-capacity:1000}")
+    private int topKCapacity;
+
+    @Value("${analytics.sketch.hll-precision:14}")
+    private int hllPrecision;
+
+    private final Map<LocalDate, WindowSketches> windows = new HashMap<>();
+    private final Set<LocalDate> dirty = new HashSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<SalesSketch> persisted = salesSketchRepository.findAll();
+        // sales committed since startup may already have been recorded, so the
+        // persisted state is merged into the live windows rather than replacing them;
+        // windows that took such sales stay dirty and are rewritten with the union
+        synchronized (this) {
+            for (SalesSketch sketch : persisted) {
+                WindowSketches window = window(sketch.getWindowStart());
+                switch (sketch.getSketchType()) {
+                    case TOP_QUANTITY -> window.byQuantity = SpaceSaving.fromBytes(sketch.getData()).merge(window.byQuantity);
+                    case TOP_REVENUE -> window.byRevenue = SpaceSaving.fromBytes(sketch.getData()).merge(window.byRevenue);
+                    case CUSTOMERS -> window.customers = HyperLogLog.fromBytes(sketch.getData()).merge(window.customers);
+                }
+            }
+        }
+        if (persisted.isEmpty()) {
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<SaleRow> rows = saleRepository.streamAllRows()) {
+                    rows.forEach(row -> record(row.getCreatedAt(), row.getProductId(), row.getQuantity(),
+                            row.getTotalAmount(), row.getCustomerName()));
+                }
+            });
+            persist();
+        }
+        logger.info("Loaded sales sketches for {} monthly windows", windows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        if (event.getBefore() == null && event.getAfter() != null) {
+            record(event.getAfter().getCreatedAt(), event.getAfter().getProductId(), event.getAfter().getQuantity(),
+                    event.getAfter().getTotalAmount(), event.getAfter().getCustomerName());
+        }
+    }
+
+    private synchronized void record(LocalDateTime createdAt, Long productId, int quantity, BigDecimal totalAmount,
+                                     String customerName) {
+        LocalDate windowStart = YearMonth.from(createdAt != null ? createdAt : LocalDateTime.now()).atDay(1);
+        WindowSketches window = window(windowStart);
+        window.byQuantity.add(productId, quantity);
+        window.byRevenue.add(productId, totalAmount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue());
+        if (customerName != null && !customerName.isBlank()) {
+            window.customers.add(customerName.trim().toLowerCase(Locale.ROOT));
+        }
+        dirty.add(windowStart);
+    }
+
+    private WindowSketches window(LocalDate windowStart) {
+        return windows.computeIfAbsent(windowStart, w -> new WindowSketches(topKCapacity, hllPrecision));
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${analytics.sketch.persist-interval-ms:60000}")
+    public void persist() {
+        Map<LocalDate, byte[][]> snapshot = new HashMap<>();
+        synchronized (this) {
+            for (LocalDate windowStart : dirty) {
+                WindowSketches window = windows.get(windowStart);
+                snapshot.put(windowStart, new byte[][]{
+                        window.byQuantity.toBytes(), window.byRevenue.toBytes(), window.customers.toBytes()});
+            }
+            dirty.clear();
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> snapshot.forEach((windowStart, data) -> {
+                save(windowStart, SalesSketch.SketchType.TOP_QUANTITY, data[0]);
+                save(windowStart, SalesSketch.SketchType.TOP_REVENUE, data[1]);
+                save(windowStart, SalesSketch.SketchType.CUSTOMERS, data[2]);
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to persist sales sketches for {} windows, retrying on next interval", snapshot.size(), e);
+            synchronized (this) {
+                dirty.addAll(snapshot.keySet());
+            }
+        }
+    }
+
+    private void save(LocalDate windowStart, SalesSketch.SketchType type, byte[] data) {
+        SalesSketch sketch = salesSketchRepository.findByWindowStartAndSketchType(windowStart, type)
+                .orElseGet(() -> new SalesSketch(windowStart, type));
+        sketch.setData(data);
+        salesSketchRepository.save(sketch);
+    }
+
+    public synchronized TopProductsDTO getTopProducts(RankBy rankBy, YearMonth from, YearMonth to, int k) {
+        SpaceSaving merged = new SpaceSaving(topKCapacity);
+        for (WindowSketches window : windowsBetween(from, to)) {
+            merged = merged.merge(rankBy == RankBy.QUANTITY ? window.byQuantity : window.byRevenue);
+        }
+        int scale = rankBy == RankBy.QUANTITY ? 0 : 2;
+        List<TopProductDTO> products = merged.top(k).stream()
+                .map(e -> new TopProductDTO(e[0], BigDecimal.valueOf(e[1], scale), BigDecimal.valueOf(e[2], scale)))
+                .collect(Collectors.toList());
+        return new TopProductsDTO(rankBy.name(), from + " - " + to, products,
+                BigDecimal.valueOf(merged.getTotalWeight(), scale), BigDecimal.valueOf(merged.errorBound(), scale));
+    }
+
+    public synchronized DistinctCustomersDTO getDistinctCustomers(YearMonth from, YearMonth to) {
+        HyperLogLog merged = new HyperLogLog(hllPrecision);
+        for (WindowSketches window : windowsBetween(from, to)) {
+            merged = merged.merge(window.customers);
+        }
+        return new DistinctCustomersDTO(from + " - " + to, merged.estimate(), merged.relativeStandardError());
+    }
+
+    private List<WindowSketches> windowsBetween(YearMonth from, YearMonth to) {
+        LocalDate start = from.atDay(1);
+        LocalDate end = to.atDay(1);
+        return windows.entrySet().stream()
+                .filter(e -> !e.getKey().isBefore(start) && !e.getKey().isAfter(end))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    public enum RankBy {
+        QUANTITY, REVENUE
+    }
+
+    private static class WindowSketches {
+        private SpaceSaving byQuantity;
+        private SpaceSaving byRevenue;
+        private HyperLogLog customers;
+
+        WindowSketches(int topKCapacity, int hllPrecision) {
+            this.byQuantity = new SpaceSaving(topKCapacity);
+            this.byRevenue = new SpaceSaving(topKCapacity);
+            this.customers = new HyperLogLog(hllPrecision);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * What a scan of the sales table read: the fingerprint of the row it saw for a sale,
+ * or null if it read no row for it. Lets a rebuild tell which of the live changes
+ * captured while it scanned were already in what it read.
+ */
+@FunctionalInterface
+public interface ScanView {
+
+    Long fingerprintOf(Long saleId);
+
+    /**
+     * Number of a sale's captured changes, in the order they were applied, that the
+     * scan had already seen, or -1 if it read a state none of them explains. The scan
+     * read either the state before the first change or the state one of them left
+     * behind; states with the same fingerprint count the same, so the latest match wins.
+     */
+    default int changesSeen(Long saleId, List<SaleChangedEvent> changes) {
+        Long scanned = fingerprintOf(saleId);
+        for (int i = changes.size(); i > 0; i--) {
+            if (matches(changes.get(i - 1).getAfter(), scanned)) {
+                return i;
+            }
+        }
+        return matches(changes.get(0).getBefore(), scanned) ? 0 : -1;
+    }
+
+    private static boolean matches(SaleSnapshot state, Long scanned) {
+        if (state == null) {
+            return scanned == null;
+        }
+        return scanned != null && scanned == fingerprint(state.getProductId(), state.getStatus(),
+                state.getQuantity(), state.getTotalAmount());
+    }
+
+    /**
+     * Hash of the fields sales analytics are built from, so two states of a sale with
+     * the same fingerprint add the same amounts.
+     */
+    static long fingerprint(Long productId, Sale.SaleStatus status, int quantity, BigDecimal totalAmount) {
+        long hash = productId != null ? productId : 0;
+        hash = 31 * hash + (status != null ? status.ordinal() : -1);
+        hash = 31 * hash + quantity;
+        hash = 31 * hash + (totalAmount != null ? totalAmount.stripTrailingZeros().hashCode() : 0);
+        return hash;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.sale.repository.SaleRow;
+
+import java.util.Arrays;
+
+/**
+ * Fingerprints of the sale rows a scan read, kept in parallel primitive arrays
+ * (16 bytes a row) sorted by sale id. Rows must be added in ascending id order.
+ * Not thread-safe.
+ */
+class ScannedSales implements ScanView {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] saleIds = new long[INITIAL_CAPACITY];
+    private long[] fingerprints = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(SaleRow row) {
+        if (size > 0 && row.getId() <= saleIds[size - 1]) {
+            throw new IllegalStateException("Sale rows must be scanned in ascending id order");
+        }
+        if (size == saleIds.length) {
+            saleIds = Arrays.copyOf(saleIds, size * 2);
+            fingerprints = Arrays.copyOf(fingerprints, size * 2);
+        }
+        saleIds[size] = row.getId();
+        fingerprints[size] = ScanView.fingerprint(row.getProductId(), row.getStatus(),
+                row.getQuantity(), row.getTotalAmount());
+        size++;
+    }
+
+    @Override
+    public Long fingerprintOf(Long saleId) {
+        int index = Arrays.binarySearch(saleIds, 0, size, saleId);
+        return index >= 0 ? fingerprints[index] : null;
+    }
+}
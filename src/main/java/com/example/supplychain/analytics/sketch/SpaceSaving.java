@@ -0,0 +1,134 @@
+package com.example.supplychain.analytics.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Weighted Space-Saving summary for heavy hitters over long keys. Keeps at most
+ * {@code capacity} counters; every estimate overcounts the true weight by at most
+ * its recorded error, which is itself bounded by {@code totalWeight / capacity}.
+ * Not thread-safe.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, long[]> counters;
+    private long totalWeight;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(long item, long weight) {
+        totalWeight += weight;
+        long[] counter = counters.get(item);
+        if (counter != null) {
+            counter[0] += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(item, new long[]{weight, 0});
+            return;
+        }
+        Long minItem = null;
+        long minCount = Long.MAX_VALUE;
+        for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < minCount) {
+                minCount = entry.getValue()[0];
+                minItem = entry.getKey();
+            }
+        }
+        counters.remove(minItem);
+        counters.put(item, new long[]{minCount + weight, minCount});
+    }
+
+    private long minCount() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        return counters.values().stream().mapToLong(c -> c[0]).min().orElse(0);
+    }
+
+    public SpaceSaving merge(SpaceSaving other) {
+        SpaceSaving merged = new SpaceSaving(Math.max(capacity, other.capacity));
+        long thisMin = minCount();
+        long otherMin = other.minCount();
+        Set<Long> items = new HashSet<>(counters.keySet());
+        items.addAll(other.counters.keySet());
+
+        List<Map.Entry<Long, long[]>> combined = new ArrayList<>(items.size());
+        for (Long item : items) {
+            long[] a = counters.getOrDefault(item, new long[]{thisMin, thisMin});
+            long[] b = other.counters.getOrDefault(item, new long[]{otherMin, otherMin});
+            combined.add(Map.entry(item, new long[]{a[0] + b[0], a[1] + b[1]}));
+        }
+        combined.sort(Comparator.comparingLong((Map.Entry<Long, long[]> e) -> e.getValue()[0]).reversed());
+        for (int i = 0; i < Math.min(merged.capacity, combined.size()); i++) {
+            merged.counters.put(combined.get(i).getKey(), combined.get(i).getValue());
+        }
+        merged.totalWeight = totalWeight + other.totalWeight;
+        return merged;
+    }
+
+    /**
+     * Returns up to k entries ordered by estimated weight, each as {item, estimate, maxError}.
+     */
+    public List<long[]> top(int k) {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, long[]> e) -> e.getValue()[0]).reversed())
+                .limit(k)
+                .map(e -> new long[]{e.getKey(), e.getValue()[0], e.getValue()[1]})
+                .toList();
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    public long errorBound() {
+        return totalWeight / capacity;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(capacity);
+            out.writeLong(totalWeight);
+            out.writeInt(counters.size());
+            for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue()[0]);
+                out.writeLong(entry.getValue()[1]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SpaceSaving fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            SpaceSaving sketch = new SpaceSaving(in.readInt());
+            sketch.totalWeight = in.readLong();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.counters.put(in.readLong(), new long[]{in.readLong(), in.readLong()});
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
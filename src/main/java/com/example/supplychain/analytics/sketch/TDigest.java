@@ -0,0 +1,174 @@
+package com.example.supplychain.analytics.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for streaming quantile estimates. The number of centroids is
+ * bounded by roughly {@code compression}, so memory stays constant regardless of
+ * how many values are added; accuracy is best near the tails. Not thread-safe.
+ */
+public class TDigest {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final double compression;
+    private final int bufferLimit;
+
+    private double[] means = new double[INITIAL_CAPACITY];
+    private double[] weights = new double[INITIAL_CAPACITY];
+    private int centroids;
+
+    private double[] buffer = new double[INITIAL_CAPACITY];
+    private int buffered;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        this.bufferLimit = (int) (4 * compression);
+    }
+
+    public void add(double value) {
+        if (buffered == buffer.length) {
+            if (buffered >= bufferLimit) {
+                compress(null);
+            } else {
+                buffer = Arrays.copyOf(buffer, Math.min(bufferLimit, buffer.length * 2));
+            }
+        }
+        buffer[buffered++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(TDigest other) {
+        if (other.count == 0) {
+            return;
+        }
+        other.compress(null);
+        compress(other);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private void compress(TDigest other) {
+        int otherCentroids = other != null ? other.centroids : 0;
+        int n = centroids + buffered + otherCentroids;
+        if (n == 0 || (buffered == 0 && otherCentroids == 0)) {
+            return;
+        }
+        double[] inMeans = new double[n];
+        double[] inWeights = new double[n];
+        System.arraycopy(means, 0, inMeans, 0, centroids);
+        System.arraycopy(weights, 0, inWeights, 0, centroids);
+        for (int i = 0; i < buffered; i++) {
+            inMeans[centroids + i] = buffer[i];
+            inWeights[centroids + i] = 1;
+        }
+        if (other != null) {
+            System.arraycopy(other.means, 0, inMeans, centroids + buffered, otherCentroids);
+            System.arraycopy(other.weights, 0, inWeights, centroids + buffered, otherCentroids);
+        }
+        buffered = 0;
+
+        Integer[] order = new Integer[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            total += inWeights[i];
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(inMeans[a], inMeans[b]));
+
+        double[] outMeans = new double[Math.min(n, (int) compression * 2 + 8)];
+        double[] outWeights = new double[outMeans.length];
+        int out = 0;
+        double weightSoFar = 0;
+        double currentMean = inMeans[order[0]];
+        double currentWeight = inWeights[order[0]];
+        double limit = total * inverseScale(scale(0) + 1);
+        for (int i = 1; i < n; i++) {
+            double mean = inMeans[order[i]];
+            double weight = inWeights[order[i]];
+            if (weightSoFar + currentWeight + weight <= limit) {
+                currentWeight += weight;
+                currentMean += (mean - currentMean) * weight / currentWeight;
+            } else {
+                if (out == outMeans.length) {
+                    outMeans = Arrays.copyOf(outMeans, out * 2);
+                    outWeights = Arrays.copyOf(outWeights, out * 2);
+                }
+                outMeans[out] = currentMean;
+                outWeights[out++] = currentWeight;
+                weightSoFar += currentWeight;
+                limit = total * inverseScale(scale(weightSoFar / total) + 1);
+                currentMean = mean;
+                currentWeight = weight;
+            }
+        }
+        if (out == outMeans.length) {
+            outMeans = Arrays.copyOf(outMeans, out + 1);
+            outWeights = Arrays.copyOf(outWeights, out + 1);
+        }
+        outMeans[out] = currentMean;
+        outWeights[out++] = currentWeight;
+
+        means = outMeans;
+        weights = outWeights;
+        centroids = out;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private double inverseScale(double k) {
+        return (Math.sin(Math.min(k * 2 * Math.PI / compression, Math.PI / 2)) + 1) / 2;
+    }
+
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        compress(null);
+        if (centroids == 1) {
+            return means[0];
+        }
+        double total = 0;
+        for (int i = 0; i < centroids; i++) {
+            total += weights[i];
+        }
+        double target = q * total;
+        double cumulative = 0;
+        double previousMid = 0;
+        for (int i = 0; i < centroids; i++) {
+            double mid = cumulative + weights[i] / 2;
+            if (target <= mid) {
+                if (i == 0) {
+                    return min + (means[0] - min) * (target / mid);
+                }
+                double fraction = (target - previousMid) / (mid - previousMid);
+                return means[i - 1] + fraction * (means[i] - means[i - 1]);
+            }
+            previousMid = mid;
+            cumulative += weights[i];
+        }
+        double fraction = (target - previousMid) / (total - previousMid);
+        return means[centroids - 1] + fraction * (max - means[centroids - 1]);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+}
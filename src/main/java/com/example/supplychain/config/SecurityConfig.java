@@ -87,8 +87,19 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/suppliers/**").hasAnyRole("MANAGER", "ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/suppliers/**").hasRole("ADMIN")
 
+                        // Warehouse Rules
+                        .requestMatchers(HttpMethod.GET, "/api/warehouses/**").hasAnyRole("USER", "MANAGER", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/warehouses/**").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/warehouses/**").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/warehouses/**").hasRole("ADMIN")
+
+                        // Purchase Orders
+                        .requestMatchers(HttpMethod.GET, "/api/purchase-orders/**").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/purchase-orders/**").hasAnyRole("MANAGER", "ADMIN")
+
                         // Analytics
                         .requestMatchers(HttpMethod.GET, "/api/analytics/**").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/analytics/**").hasRole("ADMIN")
 
                         // Admin Routes
                         .requestMatchers(HttpMethod.GET, "/api/admin/**").hasRole("ADMIN")
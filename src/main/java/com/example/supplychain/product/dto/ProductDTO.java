@@ -28,6 +28,8 @@ public class ProductDTO {
     @NotNull(message = "IsActive is required")
     private Boolean isActive;
 
+    private Long supplierId;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -49,4 +51,7 @@ public class ProductDTO {
 
     public Boolean getIsActive() { return isActive; }
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+
+    public Long getSupplierId() { return supplierId; }
+    public void setSupplierId(Long supplierId) { this.supplierId = supplierId; }
 }
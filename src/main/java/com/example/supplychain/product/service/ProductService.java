@@ -64,6 +64,7 @@ public class ProductService {
         product.setCategory(productDTO.getCategory());
         product.setUnitPrice(productDTO.getUnitPrice());
         product.setIsActive(productDTO.getIsActive());
+        product.setSupplierId(productDTO.getSupplierId());
 
         Product updatedProduct = productRepository.save(product);
         return productMapper.toDTO(updatedProduct);
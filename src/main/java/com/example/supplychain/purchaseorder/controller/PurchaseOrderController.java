@@ -0,0 +1,48 @@
+package com.example.supplychain.purchaseorder.controller;
+
+import com.example.supplychain.purchaseorder.dto.PurchaseOrderDTO;
+import com.example.supplychain.purchaseorder.dto.ReorderRunDTO;
+import com.example.supplychain.purchaseorder.service.PurchaseOrderService;
+import com.example.supplychain.purchaseorder.service.ReorderPlannerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/purchase-orders")
+@Tag(name = "Purchase Orders", description = "Reorder planning and purchase order endpoints")
+public class PurchaseOrderController {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ReorderPlannerService reorderPlannerService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get purchase orders", description = "Retrieve purchase orders by status, newest first")
+    public ResponseEntity<List<PurchaseOrderDTO>> getPurchaseOrders(@RequestParam(defaultValue = "DRAFT") String status) {
+        return ResponseEntity.ok(purchaseOrderService.getPurchaseOrdersByStatus(status));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get purchase order by ID", description = "Retrieve a purchase order with its lines")
+    public ResponseEntity<PurchaseOrderDTO> getPurchaseOrderById(@PathVariable Long id) {
+        return ResponseEntity.ok(purchaseOrderService.getPurchaseOrderById(id));
+    }
+
+    @PostMapping("/reorder-plan")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Run reorder planning",
+            description = "Replace draft purchase orders with lines for every stock row below its minimum level")
+    public ResponseEntity<ReorderRunDTO> runReorderPlan() {
+        return ResponseEntity.ok(reorderPlannerService.run());
+    }
+}
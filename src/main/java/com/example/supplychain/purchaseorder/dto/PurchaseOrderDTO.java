@@ -0,0 +1,36 @@
+package com.example.supplychain.purchaseorder.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PurchaseOrderDTO {
+
+    private Long id;
+    private Long supplierId;
+    private String status;
+    private Integer lineCount;
+    private Long totalQuantity;
+    private LocalDateTime createdAt;
+    private List<PurchaseOrderLineDTO> lines;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getSupplierId() { return supplierId; }
+    public void setSupplierId(Long supplierId) { this.supplierId = supplierId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getLineCount() { return lineCount; }
+    public void setLineCount(Integer lineCount) { this.lineCount = lineCount; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<PurchaseOrderLineDTO> getLines() { return lines; }
+    public void setLines(List<PurchaseOrderLineDTO> lines) { this.lines = lines; }
+}
@@ -0,0 +1,33 @@
+package com.example.supplychain.purchaseorder.dto;
+
+public class PurchaseOrderLineDTO {
+
+    private Long id;
+    private Long productId;
+    private String warehouseLocation;
+    private Integer quantity;
+    private Integer onHand;
+    private Integer minimumLevel;
+    private Integer maximumLevel;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Integer getOnHand() { return onHand; }
+    public void setOnHand(Integer onHand) { this.onHand = onHand; }
+
+    public Integer getMinimumLevel() { return minimumLevel; }
+    public void setMinimumLevel(Integer minimumLevel) { this.minimumLevel = minimumLevel; }
+
+    public Integer getMaximumLevel() { return maximumLevel; }
+    public void setMaximumLevel(Integer maximumLevel) { this.maximumLevel = maximumLevel; }
+}
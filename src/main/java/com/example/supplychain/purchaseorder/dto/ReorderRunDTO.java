@@ -0,0 +1,35 @@
+package com.example.supplychain.purchaseorder.dto;
+
+import java.time.LocalDateTime;
+
+public class ReorderRunDTO {
+
+    private LocalDateTime ranAt;
+    private Long durationMs;
+    private Long rowsBelowMinimum;
+    private Integer ordersCreated;
+    private Long linesPlanned;
+    private Long totalQuantity;
+    private Long linesWithoutSupplier;
+
+    public LocalDateTime getRanAt() { return ranAt; }
+    public void setRanAt(LocalDateTime ranAt) { this.ranAt = ranAt; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public Long getRowsBelowMinimum() { return rowsBelowMinimum; }
+    public void setRowsBelowMinimum(Long rowsBelowMinimum) { this.rowsBelowMinimum = rowsBelowMinimum; }
+
+    public Integer getOrdersCreated() { return ordersCreated; }
+    public void setOrdersCreated(Integer ordersCreated) { this.ordersCreated = ordersCreated; }
+
+    public Long getLinesPlanned() { return linesPlanned; }
+    public void setLinesPlanned(Long linesPlanned) { this.linesPlanned = linesPlanned; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public Long getLinesWithoutSupplier() { return linesWithoutSupplier; }
+    public void setLinesWithoutSupplier(Long linesWithoutSupplier) { this.linesWithoutSupplier = linesWithoutSupplier; }
+}
@@ -0,0 +1,58 @@
+package com.example.supplychain.purchaseorder.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "purchase_order_lines",
+        indexes = @Index(name = "idx_purchase_order_lines_order", columnList = "purchase_order_id"))
+public class PurchaseOrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "purchase_order_id", nullable = false)
+    private Long purchaseOrderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_location")
+    private String warehouseLocation;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "on_hand", nullable = false)
+    private Integer onHand;
+
+    @Column(name = "minimum_level", nullable = false)
+    private Integer minimumLevel;
+
+    @Column(name = "maximum_level", nullable = false)
+    private Integer maximumLevel;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getPurchaseOrderId() { return purchaseOrderId; }
+    public void setPurchaseOrderId(Long purchaseOrderId) { this.purchaseOrderId = purchaseOrderId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Integer getOnHand() { return onHand; }
+    public void setOnHand(Integer onHand) { this.onHand = onHand; }
+
+    public Integer getMinimumLevel() { return minimumLevel; }
+    public void setMinimumLevel(Integer minimumLevel) { this.minimumLevel = minimumLevel; }
+
+    public Integer getMaximumLevel() { return maximumLevel; }
+    public void setMaximumLevel(Integer maximumLevel) { this.maximumLevel = maximumLevel; }
+}
@@ -0,0 +1,24 @@
+package com.example.supplychain.purchaseorder.mapper;
+
+import com.example.supplychain.purchaseorder.dto.PurchaseOrderDTO;
+import com.example.supplychain.purchaseorder.dto.PurchaseOrderLineDTO;
+import com.example.supplychain.purchaseorder.entity.PurchaseOrder;
+import com.example.supplychain.purchaseorder.entity.PurchaseOrderLine;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PurchaseOrderMapper {
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    public PurchaseOrderDTO toDTO(PurchaseOrder entity) {
+        return modelMapper.map(entity, PurchaseOrderDTO.class);
+    }
+
+    public PurchaseOrderLineDTO toDTO(PurchaseOrderLine entity) {
+        return modelMapper.map(entity, PurchaseOrderLineDTO.class);
+    }
+}
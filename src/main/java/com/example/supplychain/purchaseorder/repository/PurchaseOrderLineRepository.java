@@ -0,0 +1,21 @@
+package com.example.supplychain.purchaseorder.repository;
+
+import com.example.supplychain.purchaseorder.entity.PurchaseOrder;
+import com.example.supplychain.purchaseorder.entity.PurchaseOrderLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PurchaseOrderLineRepository extends JpaRepository<PurchaseOrderLine, Long> {
+    List<PurchaseOrderLine> findByPurchaseOrderIdOrderByProductId(Long purchaseOrderId);
+
+    @Modifying
+    @Query("DELETE FROM PurchaseOrderLine l WHERE l.purchaseOrderId IN " +
+            "(SELECT o.id FROM PurchaseOrder o WHERE o.status = :status)")
+    int deleteByOrderStatus(@Param("status") PurchaseOrder.PurchaseOrderStatus status);
+}
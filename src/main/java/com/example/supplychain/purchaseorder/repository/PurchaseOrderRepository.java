@@ -0,0 +1,19 @@
+package com.example.supplychain.purchaseorder.repository;
+
+import com.example.supplychain.purchaseorder.entity.PurchaseOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
+    List<PurchaseOrder> findByStatusOrderByIdDesc(PurchaseOrder.PurchaseOrderStatus status);
+
+    @Modifying
+    @Query("DELETE FROM PurchaseOrder o WHERE o.status = :status")
+    int deleteByStatus(@Param("status") PurchaseOrder.PurchaseOrderStatus status);
+}
@@ -0,0 +1,42 @@
+package com.example.supplychain.purchaseorder.service;
+
+import com.example.supplychain.purchaseorder.dto.PurchaseOrderDTO;
+import com.example.supplychain.purchaseorder.entity.PurchaseOrder;
+import com.example.supplychain.purchaseorder.mapper.PurchaseOrderMapper;
+import com.example.supplychain.purchaseorder.repository.PurchaseOrderLineRepository;
+import com.example.supplychain.purchaseorder.repository.PurchaseOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class PurchaseOrderService {
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+
+    @Autowired
+    private PurchaseOrderMapper purchaseOrderMapper;
+
+    public List<PurchaseOrderDTO> getPurchaseOrdersByStatus(String status) {
+        return purchaseOrderRepository.findByStatusOrderByIdDesc(PurchaseOrder.PurchaseOrderStatus.valueOf(status))
+                .stream()
+                .map(purchaseOrderMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public PurchaseOrderDTO getPurchaseOrderById(Long id) {
+        PurchaseOrder order = purchaseOrderRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Purchase order not found with id: " + id));
+        PurchaseOrderDTO dto = purchaseOrderMapper.toDTO(order);
+        dto.setLines(purchaseOrderLineRepository.findByPurchaseOrderIdOrderByProductId(id).stream()
+                .map(purchaseOrderMapper::toDTO)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.supplychain.purchaseorder.service;
+
+import com.example.supplychain.purchaseorder.dto.ReorderRunDTO;
+import com.example.supplychain.purchaseorder.entity.PurchaseOrder;
+import com.example.supplychain.purchaseorder.repository.PurchaseOrderLineRepository;
+import com.example.supplychain.purchaseorder.repository.PurchaseOrderRepository;
+import com.example.supplychain.stock.repository.ReorderCandidate;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Plans replenishment from each stock row's own levels: every (product, warehouse)
+ * row below its {@code minimumLevel} is ordered back up to its {@code maximumLevel},
+ * and the lines are grouped into one draft purchase order per supplier of the product. Candidates
+ * are streamed from a single filtered query, so only rows that need ordering are
+ * ever held in memory. Each run replaces the previous drafts; submitted or cancelled
+ * orders are left alone.
+ */
+@Service
+public class ReorderPlannerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReorderPlannerService.class);
+
+    private static final String INSERT_LINE_SQL = "INSERT INTO purchase_order_lines " +
+            "(purchase_order_id, product_id, warehouse_location, quantity, on_hand, minimum_level, maximum_level) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PurchaseOrderLineRepository purchaseOrderLineRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reorder.batch-size:1000}")
+    private int batchSize;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Object runLock = new Object();
+
+    public ReorderPlannerService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${reorder.cron:0 0 6 * * *}")
+    public void scheduledRun() {
+        ReorderRunDTO result = run();
+        logger.info("Reorder plan: {} draft orders, {} lines from {} rows below minimum in {} ms",
+                result.getOrdersCreated(), result.getLinesPlanned(), result.getRowsBelowMinimum(), result.getDurationMs());
+    }
+
+    public ReorderRunDTO run() {
+        synchronized (runLock) {
+            long started = System.nanoTime();
+            LocalDateTime ranAt = LocalDateTime.now();
+            Map<Long, List<PlannedLine>> bySupplier = new HashMap<>();
+            long[] rowsBelowMinimum = new long[1];
+
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ReorderCandidate> candidates = stockRepository.streamReorderCandidates()) {
+                    candidates.forEach(candidate -> {
+                        rowsBelowMinimum[0]++;
+                        int quantity = candidate.getMaximumLevel() - candidate.getQuantity();
+                        if (quantity > 0) {
+                            bySupplier.computeIfAbsent(candidate.getSupplierId(), id -> new ArrayList<>())
+                                    .add(new PlannedLine(candidate.getProductId(), candidate.getWarehouseLocation(),
+                                            quantity, candidate.getQuantity(),
+                                            candidate.getMinimumLevel(), candidate.getMaximumLevel()));
+                        }
+                    });
+                }
+            });
+
+            ReorderRunDTO result = new ReorderRunDTO();
+            result.setRanAt(ranAt);
+            result.setRowsBelowMinimum(rowsBelowMinimum[0]);
+            result.setOrdersCreated(bySupplier.size());
+            result.setLinesPlanned(bySupplier.values().stream().mapToLong(List::size).sum());
+            result.setTotalQuantity(bySupplier.values().stream()
+                    .flatMap(List::stream).mapToLong(PlannedLine::quantity).sum());
+            result.setLinesWithoutSupplier((long) bySupplier.getOrDefault(null, List.of()).size());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                purchaseOrderLineRepository.deleteByOrderStatus(PurchaseOrder.PurchaseOrderStatus.DRAFT);
+                purchaseOrderRepository.deleteByStatus(PurchaseOrder.PurchaseOrderStatus.DRAFT);
+                bySupplier.forEach(this::saveDraft);
+            });
+
+            result.setDurationMs((System.nanoTime() - started) / 1_000_000);
+            return result;
+        }
+    }
+
+    private void saveDraft(Long supplierId, List<PlannedLine> lines) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setSupplierId(supplierId);
+        order.setStatus(PurchaseOrder.PurchaseOrderStatus.DRAFT);
+        order.setLineCount(lines.size());
+        order.setTotalQuantity(lines.stream().mapToLong(PlannedLine::quantity).sum());
+        Long orderId = purchaseOrderRepository.save(order).getId();
+
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lines, batchSize, (ps, line) -> {
+            ps.setLong(1, orderId);
+            ps.setLong(2, line.productId());
+            ps.setString(3, line.warehouseLocation());
+            ps.setInt(4, line.quantity());
+            ps.setInt(5, line.onHand());
+            ps.setInt(6, line.minimumLevel());
+            ps.setInt(7, line.maximumLevel());
+        });
+    }
+
+    private record PlannedLine(Long productId, String warehouseLocation, int quantity, int onHand,
+                               int minimumLevel, int maximumLevel) {}
+}
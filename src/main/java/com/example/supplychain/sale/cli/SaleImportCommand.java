@@ -0,0 +1,75 @@
+package com.example.supplychain.sale.cli;
+
+import com.example.supplychain.sale.dto.SaleImportResultDTO;
+import com.example.supplychain.sale.service.SaleFileFormat;
+import com.example.supplychain.sale.service.SaleImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a sales file from the command line and exits, e.g.
+ * <pre>
+ * java -jar supply-chain-management-1.0.0.jar --spring.main.web-application-type=none \
+ *     --sales.import.file=/data/pos-2026-10-16.csv
+ * </pre>
+ * The format follows the file extension ({@code .csv}, {@code .ndjson}, {@code .jsonl})
+ * unless {@code --sales.import.format} is given. The exit code is 0 when every row was
+ * imported, 2 when some were rejected and 1 when the import failed.
+ */
+@Component
+@ConditionalOnProperty(name = "sales.import.file")
+public class SaleImportCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleImportCommand.class);
+
+    @Autowired
+    private SaleImportService saleImportService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${sales.import.file}")
+    private String file;
+
+    @Value("${sales.import.format:}")
+    private String format;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path path = Path.of(file);
+        int exitCode;
+        try (InputStream input = Files.newInputStream(path)) {
+            SaleImportResultDTO result = saleImportService.importSales(input, formatFor(path));
+            result.getRejections().forEach(r -> logger.warn("Line {} ({}): {}", r.getLine(), r.getSaleOrderNumber(), r.getReason()));
+            if (result.isRejectionsTruncated()) {
+                logger.warn("{} more rejected rows not listed", result.getRowsRejected() - result.getRejections().size());
+            }
+            exitCode = result.getRowsRejected() == 0 ? 0 : 2;
+        } catch (Exception e) {
+            logger.error("Sales import from {} failed", path, e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private SaleFileFormat formatFor(Path path) {
+        if (!format.isBlank()) {
+            return SaleFileFormat.of(format);
+        }
+        String name = path.getFileName().toString();
+        return SaleFileFormat.of(name.substring(name.lastIndexOf('.') + 1));
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.supplychain.sale.controller;
 
 import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.dto.SaleImportResultDTO;
+import com.example.supplychain.sale.dto.SaleIntakeStatusDTO;
+import com.example.supplychain.sale.dto.SalePageDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.exception.SaleIntakeFullException;
+import com.example.supplychain.sale.service.SaleExportService;
+import com.example.supplychain.sale.service.SaleFileFormat;
+import com.example.supplychain.sale.service.SaleIdempotencyService;
+import com.example.supplychain.sale.service.SaleIntakeService;
+import com.example.supplychain.sale.service.SaleImportService;
 import com.example.supplychain.sale.service.SaleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/sales")
@@ -21,12 +38,87 @@ public class SaleController {
     @Autowired
     private SaleService saleService;
 
+    @Autowired
+    private SaleImportService saleImportService;
+
+    @Autowired
+    private SaleExportService saleExportService;
+
+    @Autowired
+    private SaleIdempotencyService saleIdempotencyService;
+
+    @Autowired
+    private SaleIntakeService saleIntakeService;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
-    @Operation(summary = "Create new sale", description = "Create a new sales order")
-    public ResponseEntity<SaleDTO> createSale(@Valid @RequestBody SaleDTO saleDTO) {
-        SaleDTO createdSale = saleService.createSale(saleDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdSale);
+    @Operation(summary = "Create new sale",
+            description = "Create a new sales order; with an Idempotency-Key header, retries return the original sale. "
+                    + "When async intake is enabled, orders without a key are queued and answered with 202 and a tracking id")
+    public ResponseEntity<?> createSale(@Valid @RequestBody SaleDTO saleDTO,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                        Principal principal) {
+        if (idempotencyKey == null && saleIntakeService.isEnabled()) {
+            SaleIntakeStatusDTO accepted = saleIntakeService.submit(saleDTO);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                            .path("/intake/{trackingId}")
+                            .buildAndExpand(accepted.getTrackingId())
+                            .toUri())
+                    .body(accepted);
+        }
+        if (idempotencyKey == null) {
+            SaleDTO createdSale = saleService.createSale(saleDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdSale);
+        }
+        SaleIdempotencyService.Outcome outcome =
+                saleIdempotencyService.createSale(principal.getName(), idempotencyKey, saleDTO);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.sale());
+    }
+
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Import sales",
+            description = "Stream a CSV (with header row) or NDJSON request body of finished sales, inserted in batches")
+    public ResponseEntity<SaleImportResultDTO> importSales(@RequestParam(defaultValue = "csv") String format,
+                                                           InputStream body) throws IOException {
+        return ResponseEntity.ok(saleImportService.importSales(body, SaleFileFormat.of(format)));
+    }
+
+    @GetMapping("/intake/{trackingId}")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get queued order status", description = "Pipeline state of an order accepted by the async intake")
+    public ResponseEntity<SaleIntakeStatusDTO> getIntakeStatus(@PathVariable String trackingId) {
+        return ResponseEntity.ok(saleIntakeService.getStatus(trackingId));
+    }
+
+    @ExceptionHandler(SaleIntakeFullException.class)
+    public ResponseEntity<String> intakeFull(SaleIntakeFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    // written straight to the servlet response rather than through an async body, so a
+    // long export is not cut off by the async request timeout
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Export sales",
+            description = "Stream matching sales oldest first as CSV or NDJSON, in the same columns the import reads")
+    public void exportSales(@RequestParam(defaultValue = "csv") String format,
+                            @RequestParam(required = false) String status,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                            HttpServletResponse response) throws IOException {
+        SaleFileFormat fileFormat = SaleFileFormat.of(format);
+        Sale.SaleStatus saleStatus = status != null ? Sale.SaleStatus.valueOf(status.toUpperCase()) : null;
+        response.setContentType(fileFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=sales-export." + fileFormat.getExtension());
+        saleExportService.export(response.getOutputStream(), fileFormat, saleStatus, from, to);
     }
 
     @GetMapping("/{id}")
@@ -47,25 +139,36 @@ public class SaleController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
-    @Operation(summary = "Get all sales", description = "Retrieve all sales orders")
-    public ResponseEntity<List<SaleDTO>> getAllSales() {
-        List<SaleDTO> sales = saleService.getAllSales();
+    @Operation(summary = "Get sales", description = "Page through sales newest first, optionally filtered; pass nextCursor back as cursor for the next page")
+    public ResponseEntity<SalePageDTO> getSales(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        SalePageDTO sales = saleService.getSales(status, productId, customerName, from, to, cursor, size);
         return ResponseEntity.ok(sales);
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
-    @Operation(summary = "Get sales by status", description = "Retrieve all sales with a specific status")
-    public ResponseEntity<List<SaleDTO>> getSalesByStatus(@PathVariable String status) {
-        List<SaleDTO> sales = saleService.getSalesByStatus(status);
+    @Operation(summary = "Get sales by status", description = "Page through sales with a specific status, newest first")
+    public ResponseEntity<SalePageDTO> getSalesByStatus(@PathVariable String status,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int size) {
+        SalePageDTO sales = saleService.getSalesByStatus(status, cursor, size);
         return ResponseEntity.ok(sales);
     }
 
     @GetMapping("/product/{productId}")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
-    @Operation(summary = "Get sales by product", description = "Retrieve all sales for a specific product")
-    public ResponseEntity<List<SaleDTO>> getSalesByProduct(@PathVariable Long productId) {
-        List<SaleDTO> sales = saleService.getSalesByProduct(productId);
+    @Operation(summary = "Get sales by product", description = "Page through sales for a specific product, newest first")
+    public ResponseEntity<SalePageDTO> getSalesByProduct(@PathVariable Long productId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "50") int size) {
+        SalePageDTO sales = saleService.getSalesByProduct(productId, cursor, size);
         return ResponseEntity.ok(sales);
     }
 
@@ -7,7 +7,7 @@ public class SaleDTO {
 
     private Long id;
 
-    @NotBlank(message = "Sale order number is required")
+    // assigned by the server when left blank on create
     private String saleOrderNumber;
 
     @NotNull(message = "Product ID is required")
@@ -32,6 +32,8 @@ public class SaleDTO {
 
     private String deliveryAddress;
 
+    private String warehouseLocation;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -58,4 +60,7 @@ public class SaleDTO {
 
     public String getDeliveryAddress() { return deliveryAddress; }
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
 }
@@ -0,0 +1,25 @@
+package com.example.supplychain.sale.dto;
+
+public class SaleImportRejectionDTO {
+
+    private Long line;
+    private String saleOrderNumber;
+    private String reason;
+
+    public SaleImportRejectionDTO() {}
+
+    public SaleImportRejectionDTO(Long line, String saleOrderNumber, String reason) {
+        this.line = line;
+        this.saleOrderNumber = saleOrderNumber;
+        this.reason = reason;
+    }
+
+    public Long getLine() { return line; }
+    public void setLine(Long line) { this.line = line; }
+
+    public String getSaleOrderNumber() { return saleOrderNumber; }
+    public void setSaleOrderNumber(String saleOrderNumber) { this.saleOrderNumber = saleOrderNumber; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,43 @@
+package com.example.supplychain.sale.dto;
+
+import java.util.List;
+
+public class SaleImportResultDTO {
+
+    private String format;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private int batches;
+    private long durationMs;
+    private double rowsPerSecond;
+    private List<SaleImportRejectionDTO> rejections;
+    private boolean rejectionsTruncated;
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getRowsImported() { return rowsImported; }
+    public void setRowsImported(long rowsImported) { this.rowsImported = rowsImported; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public int getBatches() { return batches; }
+    public void setBatches(int batches) { this.batches = batches; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public List<SaleImportRejectionDTO> getRejections() { return rejections; }
+    public void setRejections(List<SaleImportRejectionDTO> rejections) { this.rejections = rejections; }
+
+    public boolean isRejectionsTruncated() { return rejectionsTruncated; }
+    public void setRejectionsTruncated(boolean rejectionsTruncated) { this.rejectionsTruncated = rejectionsTruncated; }
+}
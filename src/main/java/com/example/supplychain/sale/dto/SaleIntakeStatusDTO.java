@@ -0,0 +1,37 @@
+package com.example.supplychain.sale.dto;
+
+import java.time.LocalDateTime;
+
+public class SaleIntakeStatusDTO {
+
+    public enum State { QUEUED, PROCESSING, CREATED, REJECTED }
+
+    private String trackingId;
+    private State state;
+    private String saleOrderNumber;
+    private Long saleId;
+    private String reason;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime updatedAt;
+
+    public String getTrackingId() { return trackingId; }
+    public void setTrackingId(String trackingId) { this.trackingId = trackingId; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public String getSaleOrderNumber() { return saleOrderNumber; }
+    public void setSaleOrderNumber(String saleOrderNumber) { this.saleOrderNumber = saleOrderNumber; }
+
+    public Long getSaleId() { return saleId; }
+    public void setSaleId(Long saleId) { this.saleId = saleId; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public void setAcceptedAt(LocalDateTime acceptedAt) { this.acceptedAt = acceptedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,32 @@
+package com.example.supplychain.sale.dto;
+
+import java.util.List;
+
+public class SalePageDTO {
+
+    private List<SaleDTO> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+
+    public SalePageDTO() {}
+
+    public SalePageDTO(List<SaleDTO> items, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.size = items.size();
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SaleDTO> getItems() { return items; }
+    public void setItems(List<SaleDTO> items) { this.items = items; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -5,7 +5,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_created", columnList = "created_at, id"),
+        @Index(name = "idx_sales_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_sales_product_created", columnList = "product_id, created_at, id"),
+        @Index(name = "idx_sales_customer_created", columnList = "customer_name, created_at, id")
+})
 public class Sale {
 
     @Id
@@ -37,6 +42,14 @@ public class Sale {
     @Column(name = "delivery_address")
     private String deliveryAddress;
 
+    @Column(name = "warehouse_location")
+    private String warehouseLocation;
+
+    // units this sale took out of stock; null for sales recorded before reservations
+    // were, which never took any
+    @Column(name = "reserved_quantity")
+    private Integer reservedQuantity;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -81,6 +94,12 @@ public class Sale {
     public String getDeliveryAddress() { return deliveryAddress; }
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
 
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Integer getReservedQuantity() { return reservedQuantity; }
+    public void setReservedQuantity(Integer reservedQuantity) { this.reservedQuantity = reservedQuantity; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -88,6 +107,13 @@ public class Sale {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
     public enum SaleStatus {
-        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED;
+
+        /**
+         * Whether a sale in this status keeps its units reserved from stock.
+         */
+        public boolean holdsStock() {
+            return this != CANCELLED;
+        }
     }
 }
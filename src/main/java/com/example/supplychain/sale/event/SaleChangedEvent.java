@@ -0,0 +1,32 @@
+package com.example.supplychain.sale.event;
+
+/**
+ * Published by SaleService whenever a sale is created, updated or deleted.
+ * Listeners receive immutable snapshots of the row before and after the change;
+ * {@code before} is null for creations and {@code after} is null for deletions.
+ */
+public class SaleChangedEvent {
+
+    private final SaleSnapshot before;
+    private final SaleSnapshot after;
+
+    public SaleChangedEvent(SaleSnapshot before, SaleSnapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static SaleChangedEvent created(SaleSnapshot after) {
+        return new SaleChangedEvent(null, after);
+    }
+
+    public static SaleChangedEvent updated(SaleSnapshot before, SaleSnapshot after) {
+        return new SaleChangedEvent(before, after);
+    }
+
+    public static SaleChangedEvent deleted(SaleSnapshot before) {
+        return new SaleChangedEvent(before, null);
+    }
+
+    public SaleSnapshot getBefore() { return before; }
+    public SaleSnapshot getAfter() { return after; }
+}
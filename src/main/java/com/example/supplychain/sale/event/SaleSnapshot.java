@@ -0,0 +1,39 @@
+package com.example.supplychain.sale.event;
+
+import com.example.supplychain.sale.entity.Sale;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public final class SaleSnapshot {
+
+    private final Long id;
+    private final Long productId;
+    private final int quantity;
+    private final BigDecimal totalAmount;
+    private final Sale.SaleStatus status;
+    private final String customerName;
+    private final LocalDateTime createdAt;
+
+    private SaleSnapshot(Sale sale) {
+        this.id = sale.getId();
+        this.productId = sale.getProductId();
+        this.quantity = sale.getQuantity();
+        this.totalAmount = sale.getTotalAmount();
+        this.status = sale.getStatus();
+        this.customerName = sale.getCustomerName();
+        this.createdAt = sale.getCreatedAt();
+    }
+
+    public static SaleSnapshot of(Sale sale) {
+        return new SaleSnapshot(sale);
+    }
+
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public Sale.SaleStatus getStatus() { return status; }
+    public String getCustomerName() { return customerName; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,17 @@
+package com.example.supplychain.sale.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class SaleIntakeFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SaleIntakeFullException(int capacity, long retryAfterSeconds) {
+        super("Sale intake queue is full (" + capacity + " orders), retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,19 @@
+package com.example.supplychain.sale.repository;
+
+import com.example.supplychain.sale.entity.Sale;
+
+import java.math.BigDecimal;
+
+public interface SaleAggregate {
+    Long getOrderCount();
+    Long getTotalQuantity();
+    BigDecimal getTotalRevenue();
+
+    interface ByStatus extends SaleAggregate {
+        Sale.SaleStatus getStatus();
+    }
+
+    interface ByProduct extends SaleAggregate {
+        Long getProductId();
+    }
+}
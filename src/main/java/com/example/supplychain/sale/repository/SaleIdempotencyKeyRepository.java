@@ -0,0 +1,22 @@
+package com.example.supplychain.sale.repository;
+
+import com.example.supplychain.sale.entity.SaleIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SaleIdempotencyKeyRepository extends JpaRepository<SaleIdempotencyKey, String> {
+
+    @Modifying
+    @Query("DELETE FROM SaleIdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SaleIdempotencyKey k WHERE k.scopedKey = :scopedKey AND k.expiresAt < :now")
+    int deleteIfExpired(@Param("scopedKey") String scopedKey, @Param("now") LocalDateTime now);
+}
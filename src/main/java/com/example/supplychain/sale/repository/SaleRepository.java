@@ -1,15 +1,91 @@
 package com.example.supplychain.sale.repository;
 
 import com.example.supplychain.sale.entity.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, Long> {
+public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificationExecutor<Sale> {
     Optional<Sale> findBySaleOrderNumber(String saleOrderNumber);
-    List<Sale> findByStatus(String status);
-    List<Sale> findByProductId(Long productId);
+
+    @Query("SELECT COUNT(s) AS orderCount, " +
+            "COALESCE(SUM(s.quantity), 0) AS totalQuantity, " +
+            "COALESCE(SUM(s.totalAmount), 0) AS totalRevenue " +
+            "FROM Sale s " +
+            "WHERE (:status IS NULL OR s.status = :status) " +
+            "AND (:productId IS NULL OR s.productId = :productId) " +
+            "AND (:from IS NULL OR s.createdAt >= :from) " +
+            "AND (:to IS NULL OR s.createdAt < :to)")
+    SaleAggregate aggregate(@Param("status") Sale.SaleStatus status,
+                            @Param("productId") Long productId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+
+    @Query("SELECT s.status AS status, COUNT(s) AS orderCount, " +
+            "SUM(s.quantity) AS totalQuantity, SUM(s.totalAmount) AS totalRevenue " +
+            "FROM Sale s GROUP BY s.status")
+    List<SaleAggregate.ByStatus> aggregateByStatus();
+
+    @Query("SELECT s.productId AS productId, COUNT(s) AS orderCount, " +
+            "SUM(s.quantity) AS totalQuantity, SUM(s.totalAmount) AS totalRevenue " +
+            "FROM Sale s " +
+            "WHERE (:status IS NULL OR s.status = :status) " +
+            "AND (:from IS NULL OR s.createdAt >= :from) " +
+            "AND (:to IS NULL OR s.createdAt < :to) " +
+            "GROUP BY s.productId ORDER BY SUM(s.totalAmount) DESC")
+    List<SaleAggregate.ByProduct> aggregateByProduct(@Param("status") Sale.SaleStatus status,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.id AS id, s.productId AS productId, s.quantity AS quantity, s.totalAmount AS totalAmount, " +
+            "s.status AS status, s.customerName AS customerName, s.createdAt AS createdAt " +
+            "FROM Sale s WHERE s.createdAt >= :from AND s.createdAt < :to ORDER BY s.id")
+    Stream<SaleRow> streamRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.id AS id, s.productId AS productId, s.quantity AS quantity, s.totalAmount AS totalAmount, " +
+            "s.status AS status, s.customerName AS customerName, s.createdAt AS createdAt " +
+            "FROM Sale s ORDER BY s.id")
+    Stream<SaleRow> streamAllRows();
+
+    @Query("SELECT MIN(s.id) FROM Sale s")
+    Long findMinId();
+
+    @Query("SELECT MAX(s.id) FROM Sale s")
+    Long findMaxId();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.id AS id, s.productId AS productId, s.quantity AS quantity, s.totalAmount AS totalAmount, " +
+            "s.status AS status, s.customerName AS customerName, s.createdAt AS createdAt " +
+            "FROM Sale s WHERE s.id >= :fromId AND s.id < :toId ORDER BY s.id")
+    Stream<SaleRow> streamRowsByIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Forward-only cursor over sales in (createdAt, id) order for exports. Rows are
+     * loaded read-only, so Hibernate keeps no dirty-checking snapshot of them.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Sale s " +
+            "WHERE (:status IS NULL OR s.status = :status) " +
+            "AND (:from IS NULL OR s.createdAt >= :from) " +
+            "AND (:to IS NULL OR s.createdAt < :to) " +
+            "ORDER BY s.createdAt, s.id")
+    Stream<Sale> streamForExport(@Param("status") Sale.SaleStatus status,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
 }
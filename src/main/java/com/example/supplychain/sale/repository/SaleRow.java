@@ -0,0 +1,16 @@
+package com.example.supplychain.sale.repository;
+
+import com.example.supplychain.sale.entity.Sale;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface SaleRow {
+    Long getId();
+    Long getProductId();
+    Integer getQuantity();
+    BigDecimal getTotalAmount();
+    Sale.SaleStatus getStatus();
+    String getCustomerName();
+    LocalDateTime getCreatedAt();
+}
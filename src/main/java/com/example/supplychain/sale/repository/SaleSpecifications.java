@@ -0,0 +1,58 @@
+package com.example.supplychain.sale.repository;
+
+import com.example.supplychain.sale.entity.Sale;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmTuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for sale listings. Each one is only added to a query when its value is
+ * present, so the database sees the plain predicate it can match to an index rather
+ * than an {@code :x IS NULL OR ...} chain it has to plan for every combination.
+ */
+public final class SaleSpecifications {
+
+    private SaleSpecifications() {
+    }
+
+    public static Specification<Sale> hasStatus(Sale.SaleStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Sale> hasProduct(Long productId) {
+        return (root, query, cb) -> cb.equal(root.get("productId"), productId);
+    }
+
+    public static Specification<Sale> hasCustomer(String customerName) {
+        return (root, query, cb) -> cb.equal(root.get("customerName"), customerName);
+    }
+
+    public static Specification<Sale> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Sale> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    /**
+     * Rows strictly after a (createdAt, id) cursor in newest-first order, written as the
+     * row-value comparison {@code (created_at, id) < (?, ?)} so the database can seek
+     * straight to the cursor in an index ending in those two columns. JPA criteria has
+     * no tuple comparison, so this builds one with Hibernate's node builder.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Sale> before(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> {
+            NodeBuilder nodes = (NodeBuilder) cb;
+            SqmExpression row = new SqmTuple<>(nodes,
+                    (SqmExpression<?>) root.get("createdAt"), (SqmExpression<?>) root.get("id"));
+            SqmExpression cursor = new SqmTuple<>(nodes,
+                    (SqmExpression<?>) nodes.value(createdAt), (SqmExpression<?>) nodes.value(id));
+            return nodes.lessThan(row, cursor);
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Writes sales straight from a database cursor to an output stream as CSV or NDJSON.
+ * Nothing is collected: each row is formatted into a buffered writer and detached
+ * from the persistence context before the next one is read, so memory stays flat
+ * however many rows match. The columns are the ones the import reads, so an export
+ * can be loaded back as is.
+ */
+@Service
+public class SaleExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleExportService.class);
+
+    private static final String CSV_HEADER = "id,saleOrderNumber,productId,quantity,unitPrice,totalAmount,status," +
+            "customerName,deliveryAddress,warehouseLocation,createdAt,updatedAt";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SaleExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long export(OutputStream output, SaleFileFormat format, Sale.SaleStatus status,
+                       LocalDateTime from, LocalDateTime to) throws IOException {
+        long started = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == SaleFileFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] rows = new long[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(tx -> {
+                try (Stream<Sale> sales = saleRepository.streamForExport(status, from, to)) {
+                    sales.forEach(sale -> {
+                        try {
+                            rowWriter.write(sale);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        entityManager.detach(sale);
+                        rows[0]++;
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // typically the client went away mid-download
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Exported {} sales as {} in {} ms", rows[0], format, elapsedMs);
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        void write(Sale sale) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Sale sale) throws IOException {
+            writer.write(String.valueOf(sale.getId()));
+            writer.write(',');
+            text(sale.getSaleOrderNumber());
+            writer.write(',');
+            writer.write(String.valueOf(sale.getProductId()));
+            writer.write(',');
+            writer.write(String.valueOf(sale.getQuantity()));
+            writer.write(',');
+            decimal(sale.getUnitPrice());
+            writer.write(',');
+            decimal(sale.getTotalAmount());
+            writer.write(',');
+            writer.write(sale.getStatus().name());
+            writer.write(',');
+            text(sale.getCustomerName());
+            writer.write(',');
+            text(sale.getDeliveryAddress());
+            writer.write(',');
+            text(sale.getWarehouseLocation());
+            writer.write(',');
+            timestamp(sale.getCreatedAt());
+            writer.write(',');
+            timestamp(sale.getUpdatedAt());
+            writer.write('\n');
+        }
+
+        // quoted only when needed, with embedded quotes doubled
+        private void text(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private void decimal(BigDecimal value) throws IOException {
+            if (value != null) {
+                writer.write(value.toPlainString());
+            }
+        }
+
+        private void timestamp(LocalDateTime value) throws IOException {
+            if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Sale sale) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", sale.getId());
+            generator.writeStringField("saleOrderNumber", sale.getSaleOrderNumber());
+            generator.writeNumberField("productId", sale.getProductId());
+            generator.writeNumberField("quantity", sale.getQuantity());
+            generator.writeNumberField("unitPrice", sale.getUnitPrice());
+            generator.writeNumberField("totalAmount", sale.getTotalAmount());
+            generator.writeStringField("status", sale.getStatus().name());
+            generator.writeStringField("customerName", sale.getCustomerName());
+            generator.writeStringField("deliveryAddress", sale.getDeliveryAddress());
+            generator.writeStringField("warehouseLocation", sale.getWarehouseLocation());
+            generator.writeStringField("createdAt", sale.getCreatedAt() != null ? sale.getCreatedAt().toString() : null);
+            generator.writeStringField("updatedAt", sale.getUpdatedAt() != null ? sale.getUpdatedAt().toString() : null);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
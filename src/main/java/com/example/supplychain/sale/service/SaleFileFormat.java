@@ -0,0 +1,30 @@
+package com.example.supplychain.sale.service;
+
+/**
+ * File formats for sales import and export: CSV with a header row, or NDJSON with
+ * one JSON object per line. Both use the sale field names.
+ */
+public enum SaleFileFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    SaleFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+
+    public static SaleFileFormat of(String value) {
+        String normalized = value.trim().toUpperCase();
+        if (normalized.equals("JSONL") || normalized.equals("JSON")) {
+            return NDJSON;
+        }
+        return valueOf(normalized);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.entity.SaleIdempotencyKey;
+import com.example.supplychain.sale.exception.IdempotencyKeyConflictException;
+import com.example.supplychain.sale.exception.InvalidIdempotencyKeyException;
+import com.example.supplychain.sale.repository.SaleIdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes sale creation safe to retry under an {@code Idempotency-Key}. The key is
+ * claimed by inserting a row into {@code sale_idempotency_keys} in the same transaction
+ * as the sale, so exactly one request per key can commit a sale, across instances too;
+ * the created sale is stored on that row as the response every later attempt gets back.
+ * <p>
+ * Completed keys are also held in a bounded in-memory LRU until they expire, so a
+ * retry is normally answered without any database access. Concurrent duplicates on
+ * the same instance wait for the first request instead of racing it to the table.
+ * Failed requests store nothing and can be retried with the same key.
+ */
+@Service
+public class SaleIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleIdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final String CLAIM_SQL = "INSERT INTO sale_idempotency_keys " +
+            "(scoped_key, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE sale_idempotency_keys SET sale_id = ?, response = ? WHERE scoped_key = ?";
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleIdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${sales.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${sales.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${sales.idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    // access-ordered, guarded by this
+    private Map<String, Entry> completed;
+
+    @PostConstruct
+    void init() {
+        completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates the sale once per caller and key. A repeat of a completed request gets
+     * the original sale back with {@code replayed} set; the same key with a different
+     * body, or a duplicate that outwaits the original, is a conflict.
+     */
+    public Outcome createSale(String owner, String key, SaleDTO saleDTO) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        // keys are per caller, so one user can never be handed another user's sale
+        String scopedKey = owner + ":" + key;
+        String requestHash = hash(saleDTO);
+
+        SaleDTO previous = lookup(scopedKey, key, requestHash);
+        if (previous != null) {
+            return new Outcome(previous, true);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight first = inFlight.putIfAbsent(scopedKey, mine);
+        if (first != null) {
+            return new Outcome(await(key, requestHash, first), true);
+        }
+        try {
+            Outcome outcome = execute(scopedKey, key, requestHash, saleDTO);
+            mine.result().complete(outcome.sale());
+            return outcome;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    private SaleDTO lookup(String scopedKey, String key, String requestHash) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = completed.get(scopedKey);
+            if (entry != null) {
+                if (now - entry.expiresAtNanos() < 0) {
+                    return checked(key, requestHash, entry.requestHash(), entry.sale());
+                }
+                completed.remove(scopedKey);
+            }
+        }
+        SaleIdempotencyKey stored = keyRepository.findById(scopedKey).orElse(null);
+        if (stored == null || stored.getResponse() == null || stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        SaleDTO sale = checked(key, requestHash, stored.getRequestHash(), fromJson(stored.getResponse()));
+        remember(scopedKey, requestHash, sale, stored.getExpiresAt());
+        return sale;
+    }
+
+    private Outcome execute(String scopedKey, String key, String requestHash, SaleDTO saleDTO) {
+        for (int attempt = 0; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(Duration.ofMillis(ttlMs));
+            SaleDTO created = transactionTemplate.execute(status -> {
+                try {
+                    jdbcTemplate.update(CLAIM_SQL, scopedKey, requestHash,
+                            Timestamp.valueOf(now), Timestamp.valueOf(expiresAt));
+                } catch (DuplicateKeyException e) {
+                    // blocks until the holder of the key commits or rolls back
+                    status.setRollbackOnly();
+                    return null;
+                }
+                SaleDTO sale = saleService.createSale(saleDTO);
+                jdbcTemplate.update(COMPLETE_SQL, sale.getId(), toJson(sale), scopedKey);
+                return sale;
+            });
+            if (created != null) {
+                remember(scopedKey, requestHash, created, expiresAt);
+                return new Outcome(created, false);
+            }
+
+            // another instance committed this key first
+            SaleDTO previous = lookup(scopedKey, key, requestHash);
+            if (previous != null) {
+                return new Outcome(previous, true);
+            }
+            if (attempt > 0) {
+                throw new IdempotencyKeyConflictException(key, "is still being processed");
+            }
+            // the row left behind has expired but not been purged yet
+            transactionTemplate.executeWithoutResult(status ->
+                    keyRepository.deleteIfExpired(scopedKey, LocalDateTime.now()));
+        }
+    }
+
+    private SaleDTO await(String key, String requestHash, InFlight first) {
+        if (!first.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(key, "is already in use for a different request");
+        }
+        try {
+            return first.result().get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException(key, "is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for idempotency key " + key);
+        }
+    }
+
+    private SaleDTO checked(String key, String requestHash, String storedHash, SaleDTO sale) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(key, "was already used for a different request");
+        }
+        return sale;
+    }
+
+    private synchronized void remember(String scopedKey, String requestHash, SaleDTO sale, LocalDateTime expiresAt) {
+        long remainingMs = Duration.between(LocalDateTime.now(), expiresAt).toMillis();
+        if (remainingMs > 0) {
+            completed.put(scopedKey, new Entry(requestHash, sale,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMs)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sales.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> keyRepository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            logger.debug("Purged {} expired sale idempotency keys", purged);
+        }
+    }
+
+    private String hash(SaleDTO saleDTO) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(saleDTO)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint sale request", e);
+        }
+    }
+
+    private String toJson(SaleDTO sale) {
+        try {
+            return objectMapper.writeValueAsString(sale);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize sale " + sale.getId(), e);
+        }
+    }
+
+    private SaleDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, SaleDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored idempotent response", e);
+        }
+    }
+
+    /**
+     * Result of an idempotent create; {@code replayed} is true when the sale was created
+     * by an earlier request with the same key.
+     */
+    public record Outcome(SaleDTO sale, boolean replayed) {}
+
+    private record InFlight(String requestHash, CompletableFuture<SaleDTO> result) {}
+
+    // shared between callers, must be treated as read-only
+    private record Entry(String requestHash, SaleDTO sale, long expiresAtNanos) {}
+}
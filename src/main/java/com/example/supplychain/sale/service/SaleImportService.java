@@ -0,0 +1,457 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.dto.SaleImportRejectionDTO;
+import com.example.supplychain.sale.dto.SaleImportResultDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.stock.dto.StockAdjustmentLineDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentLineResultDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentRequestDTO;
+import com.example.supplychain.stock.service.StockService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of finished sales (e.g. end-of-day POS files) as CSV with a header row
+ * or as NDJSON, one object per line. The input is read line by line and written in
+ * batches, each batch in its own transaction, so memory depends on the batch size and
+ * not on the file: a batch is validated, its stock is taken with one bulk adjustment
+ * per (product, warehouse), and the rows go out as a single JDBC batch INSERT. The
+ * database still assigns ids ({@code IDENTITY}); only Hibernate cannot batch those,
+ * a plain JDBC batch can and hands the generated keys back.
+ * <p>
+ * Rows that fail validation, repeat an existing order number, or cannot be covered by
+ * stock are rejected individually; the first rejections are listed in the result.
+ */
+@Service
+public class SaleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO sales (sale_order_number, product_id, quantity, " +
+            "unit_price, total_amount, status, customer_name, delivery_address, warehouse_location, " +
+            "reserved_quantity, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DEFAULT_STATUS = "DELIVERED";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${sales.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${sales.import.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    public SaleImportResultDTO importSales(InputStream input, SaleFileFormat format) throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == SaleFileFormat.CSV && header == null) {
+                    header = parseCsvLine(line).stream().map(SaleImportService::normalize).collect(Collectors.toList());
+                    continue;
+                }
+                progress.rowsRead++;
+                try {
+                    Map<String, String> fields = format == SaleFileFormat.CSV ? csvFields(header, line) : jsonFields(line);
+                    batch.add(toRow(lineNumber, fields));
+                } catch (IllegalArgumentException | DateTimeException | JsonProcessingException e) {
+                    progress.reject(lineNumber, null, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    flush(batch, progress);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, progress);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        SaleImportResultDTO result = new SaleImportResultDTO();
+        result.setFormat(format.name());
+        result.setRowsRead(progress.rowsRead);
+        result.setRowsImported(progress.rowsImported);
+        result.setRowsRejected(progress.rowsRejected);
+        result.setBatches(progress.batches);
+        result.setRejections(progress.rejections);
+        result.setRejectionsTruncated(progress.rowsRejected > progress.rejections.size());
+        result.setDurationMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0.0 : progress.rowsRead * 1_000_000_000.0 / elapsedNanos);
+        logger.info("Imported {} of {} sales ({} rejected) in {} ms, {} rows/s",
+                result.getRowsImported(), result.getRowsRead(), result.getRowsRejected(),
+                result.getDurationMs(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void flush(List<ImportRow> rows, Progress progress) {
+        progress.batches++;
+        List<SaleImportRejectionDTO> rejected = new ArrayList<>();
+        try {
+            int imported = transactionTemplate.execute(status -> {
+                rejected.clear();
+                return insertBatch(rows, rejected);
+            });
+            progress.rowsImported += imported;
+            rejected.forEach(r -> progress.reject(r.getLine(), r.getSaleOrderNumber(), r.getReason()));
+        } catch (DataAccessException e) {
+            // e.g. an order number inserted concurrently by another writer; nothing of
+            // the batch (stock included) was kept
+            String reason = "Batch rolled back: " + e.getMostSpecificCause().getMessage();
+            rows.forEach(row -> progress.reject(row.line(), row.sale().getSaleOrderNumber(), reason));
+        }
+    }
+
+    private int insertBatch(List<ImportRow> rows, List<SaleImportRejectionDTO> rejected) {
+        Set<String> existing = new HashSet<>(selectIn("SELECT sale_order_number FROM sales WHERE sale_order_number IN ",
+                rows.stream().map(row -> row.sale().getSaleOrderNumber()).distinct().collect(Collectors.toList()),
+                String.class));
+        Set<Long> products = new HashSet<>(selectIn("SELECT id FROM products WHERE id IN ",
+                rows.stream().map(row -> row.sale().getProductId()).distinct().collect(Collectors.toList()),
+                Long.class));
+
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        Set<String> seen = new HashSet<>();
+        for (ImportRow row : rows) {
+            String orderNumber = row.sale().getSaleOrderNumber();
+            if (existing.contains(orderNumber) || !seen.add(orderNumber)) {
+                rejected.add(new SaleImportRejectionDTO(row.line(), orderNumber, "Duplicate sale order number"));
+            } else if (!products.contains(row.sale().getProductId())) {
+                rejected.add(new SaleImportRejectionDTO(row.line(), orderNumber,
+                        "Product not found with id: " + row.sale().getProductId()));
+            } else {
+                accepted.add(row);
+            }
+        }
+        accepted = takeStock(accepted, rejected);
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ImportRow> inserted = accepted;
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ImportRow row = inserted.get(i);
+                        SaleDTO sale = row.sale();
+                        ps.setString(1, sale.getSaleOrderNumber());
+                        ps.setLong(2, sale.getProductId());
+                        ps.setInt(3, sale.getQuantity());
+                        ps.setBigDecimal(4, sale.getUnitPrice());
+                        ps.setBigDecimal(5, sale.getTotalAmount());
+                        ps.setString(6, row.status().name());
+                        ps.setString(7, sale.getCustomerName());
+                        ps.setString(8, sale.getDeliveryAddress());
+                        ps.setString(9, sale.getWarehouseLocation());
+                        // every inserted sale that holds stock had it taken by takeStock
+                        ps.setInt(10, row.status().holdsStock() ? sale.getQuantity() : 0);
+                        ps.setTimestamp(11, Timestamp.valueOf(row.createdAt()));
+                        ps.setTimestamp(12, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return inserted.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < inserted.size(); i++) {
+            Sale sale = toEntity(inserted.get(i), now);
+            sale.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            eventPublisher.publishEvent(SaleChangedEvent.created(SaleSnapshot.of(sale)));
+        }
+        return inserted.size();
+    }
+
+    /**
+     * Takes the stock for every sale that holds it, summed per (product, warehouse) into
+     * one non-atomic bulk adjustment. A line that cannot be applied rejects the sales it
+     * covers; the others record the warehouse their units came from. A product stocked
+     * in several warehouses needs the warehouse on the row.
+     */
+    private List<ImportRow> takeStock(List<ImportRow> rows, List<SaleImportRejectionDTO> rejected) {
+        Map<StockKey, List<ImportRow>> groups = new LinkedHashMap<>();
+        List<ImportRow> kept = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (!row.status().holdsStock()) {
+                kept.add(row);
+            } else {
+                groups.computeIfAbsent(new StockKey(row.sale().getProductId(), row.sale().getWarehouseLocation()),
+                        key -> new ArrayList<>()).add(row);
+            }
+        }
+        if (groups.isEmpty()) {
+            return kept;
+        }
+
+        List<StockAdjustmentLineDTO> lines = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> {
+            StockAdjustmentLineDTO line = new StockAdjustmentLineDTO();
+            line.setProductId(key.productId());
+            line.setWarehouseLocation(key.warehouseLocation());
+            line.setDelta(-group.stream().mapToInt(row -> row.sale().getQuantity()).sum());
+            lines.add(line);
+        });
+        StockAdjustmentRequestDTO request = new StockAdjustmentRequestDTO();
+        request.setLines(lines);
+        request.setAtomic(false);
+        List<StockAdjustmentLineResultDTO> results = stockService.bulkAdjust(request).getLines();
+
+        Iterator<List<ImportRow>> group = groups.values().iterator();
+        for (StockAdjustmentLineResultDTO result : results) {
+            List<ImportRow> covered = group.next();
+            if ("APPLIED".equals(result.getStatus())) {
+                covered.forEach(row -> row.sale().setWarehouseLocation(result.getWarehouseLocation()));
+                kept.addAll(covered);
+            } else {
+                covered.forEach(row -> rejected.add(new SaleImportRejectionDTO(row.line(),
+                        row.sale().getSaleOrderNumber(), "Stock not taken: " + result.getStatus())));
+            }
+        }
+        kept.sort((a, b) -> Long.compare(a.line(), b.line()));
+        return kept;
+    }
+
+    private <T> List<T> selectIn(String sql, List<?> values, Class<T> type) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(values.size(), "?"));
+        return jdbcTemplate.queryForList(sql + "(" + placeholders + ")", type, values.toArray());
+    }
+
+    private ImportRow toRow(long line, Map<String, String> fields) {
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleOrderNumber(text(fields, "saleordernumber"));
+        sale.setProductId(number(fields, "productid", Long::valueOf));
+        sale.setQuantity(number(fields, "quantity", Integer::valueOf));
+        sale.setUnitPrice(number(fields, "unitprice", BigDecimal::new));
+        BigDecimal totalAmount = number(fields, "totalamount", BigDecimal::new);
+        if (totalAmount == null && sale.getUnitPrice() != null && sale.getQuantity() != null) {
+            totalAmount = sale.getUnitPrice().multiply(BigDecimal.valueOf(sale.getQuantity()));
+        }
+        sale.setTotalAmount(totalAmount);
+        String status = text(fields, "status");
+        sale.setStatus(status != null ? status.toUpperCase() : DEFAULT_STATUS);
+        sale.setCustomerName(text(fields, "customername"));
+        sale.setDeliveryAddress(text(fields, "deliveryaddress"));
+        sale.setWarehouseLocation(text(fields, "warehouselocation"));
+
+        if (sale.getSaleOrderNumber() == null) {
+            // imported rows keep their source numbers, which is what makes a re-import skip them
+            throw new IllegalArgumentException("Sale order number is required");
+        }
+        Set<ConstraintViolation<SaleDTO>> violations = validator.validate(sale);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        Sale.SaleStatus saleStatus;
+        try {
+            saleStatus = Sale.SaleStatus.valueOf(sale.getStatus());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status: " + sale.getStatus());
+        }
+        return new ImportRow(line, sale, saleStatus, timestamp(text(fields, "createdat")));
+    }
+
+    private static Sale toEntity(ImportRow row, LocalDateTime now) {
+        Sale sale = new Sale();
+        sale.setSaleOrderNumber(row.sale().getSaleOrderNumber());
+        sale.setProductId(row.sale().getProductId());
+        sale.setQuantity(row.sale().getQuantity());
+        sale.setUnitPrice(row.sale().getUnitPrice());
+        sale.setTotalAmount(row.sale().getTotalAmount());
+        sale.setStatus(row.status());
+        sale.setCustomerName(row.sale().getCustomerName());
+        sale.setDeliveryAddress(row.sale().getDeliveryAddress());
+        sale.setWarehouseLocation(row.sale().getWarehouseLocation());
+        sale.setCreatedAt(row.createdAt());
+        sale.setUpdatedAt(now);
+        return sale;
+    }
+
+    private static String text(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <T> T number(Map<String, String> fields, String name, Function<String, T> parser) {
+        String value = text(fields, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // ISO date-times, with a space or a 'T' between date and time, or a bare date
+    private static LocalDateTime timestamp(String value) {
+        if (value == null) {
+            return LocalDateTime.now();
+        }
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    private Map<String, String> csvFields(List<String> header, String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Expected at most " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    private Map<String, String> jsonFields(String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        node.properties().forEach(e -> {
+            if (!e.getValue().isNull()) {
+                fields.put(normalize(e.getKey()), e.getValue().asText());
+            }
+        });
+        return fields;
+    }
+
+    // "saleOrderNumber", "sale_order_number" and "Sale Order Number" all name one column
+    private static String normalize(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase();
+    }
+
+    /**
+     * Splits one RFC 4180 record: fields may be quoted, with "" standing for a quote
+     * inside a quoted field. Records spanning several lines are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record ImportRow(long line, SaleDTO sale, Sale.SaleStatus status, LocalDateTime createdAt) {}
+
+    private record StockKey(Long productId, String warehouseLocation) {}
+
+    private class Progress {
+        long rowsRead;
+        long rowsImported;
+        long rowsRejected;
+        int batches;
+        final List<SaleImportRejectionDTO> rejections = new ArrayList<>();
+
+        void reject(long line, String saleOrderNumber, String reason) {
+            rowsRejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new SaleImportRejectionDTO(line, saleOrderNumber, reason));
+            }
+        }
+    }
+}
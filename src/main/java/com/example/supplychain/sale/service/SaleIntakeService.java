@@ -0,0 +1,410 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.dto.SaleIntakeStatusDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.exception.SaleIntakeFullException;
+import com.example.supplychain.sale.mapper.SaleMapper;
+import com.example.supplychain.stock.service.StockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional asynchronous order intake for traffic spikes. A request thread only
+ * validates the order, assigns its order number and puts it on a bounded queue, then
+ * answers with a tracking id; when the queue is full the caller is told to come back
+ * later instead of tying up a request thread. Worker loops on virtual threads drain the
+ * queue in batches: each batch is inserted as one JDBC batch and its stock reserved in
+ * the same transaction, sale by sale, so a shortage rejects only the sale it affects.
+ * <p>
+ * Every order's state is kept in memory for a retention period and read back through
+ * its tracking id, so it is only visible on the instance that accepted it. At most
+ * {@code sales.intake.max-tracked} states are held: a new order evicts the oldest
+ * finished ones early, and is refused like a full queue when all are in flight. Orders still
+ * queued when the application stops are processed before shutdown completes, within
+ * a grace period; the queue is not durable across a crash.
+ */
+@Service
+public class SaleIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleIntakeService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO sales (sale_order_number, product_id, quantity, " +
+            "unit_price, total_amount, status, customer_name, delivery_address, warehouse_location, " +
+            "reserved_quantity, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM sales WHERE id = ?";
+
+    private static final String SET_WAREHOUSE_SQL = "UPDATE sales SET warehouse_location = ? WHERE id = ?";
+
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleMapper saleMapper;
+
+    @Autowired
+    private SaleOrderNumberAllocator orderNumberAllocator;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+
+    @Value("${sales.intake.enabled:false}")
+    private boolean enabled;
+
+    @Value("${sales.intake.capacity:10000}")
+    private int capacity;
+
+    @Value("${sales.intake.batch-size:200}")
+    private int batchSize;
+
+    @Value("${sales.intake.workers:4}")
+    private int workers;
+
+    @Value("${sales.intake.status-retention-ms:3600000}")
+    private long statusRetentionMs;
+
+    @Value("${sales.intake.shutdown-grace-ms:30000}")
+    private long shutdownGraceMs;
+
+    @Value("${sales.intake.max-tracked:100000}")
+    private int maxTracked;
+
+    private final Map<String, Tracking> tracking = new ConcurrentHashMap<>();
+    // finished orders in the order they finished, so the oldest go first; guarded by itself
+    private final Deque<Tracking> finished = new ArrayDeque<>();
+    private BlockingQueue<Order> queue;
+    private CountDownLatch stopped;
+    private volatile boolean running;
+    // moving average of the time a worker spends per order, used for Retry-After
+    private volatile double nanosPerOrder = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        stopped = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            virtualThreadExecutor.execute(this::work);
+        }
+        logger.info("Sale intake started with {} workers, queue capacity {}", workers, capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an already validated order and returns its initial status. Throws
+     * {@link SaleIntakeFullException} with a suggested retry delay when the queue is full.
+     */
+    public SaleIntakeStatusDTO submit(SaleDTO saleDTO) {
+        Sale sale = saleMapper.toEntity(saleDTO);
+        if (sale.getStatus() == null) {
+            sale.setStatus(Sale.SaleStatus.PENDING);
+        }
+        // a sale that cannot take its stock is deleted again, so it never holds less
+        sale.setReservedQuantity(sale.getStatus().holdsStock() ? sale.getQuantity() : 0);
+        if (sale.getSaleOrderNumber() == null || sale.getSaleOrderNumber().isBlank()) {
+            sale.setSaleOrderNumber(orderNumberAllocator.next());
+        }
+        saleDTO.setSaleOrderNumber(sale.getSaleOrderNumber());
+        Tracking entry = new Tracking(UUID.randomUUID().toString(), sale.getSaleOrderNumber());
+        if (!makeRoom()) {
+            throw new SaleIntakeFullException(maxTracked, retryAfterSeconds());
+        }
+        tracking.put(entry.trackingId, entry);
+        if (!running || !queue.offer(new Order(entry, saleDTO, sale))) {
+            tracking.remove(entry.trackingId);
+            throw new SaleIntakeFullException(capacity, retryAfterSeconds());
+        }
+        return entry.toDTO();
+    }
+
+    // the bound can be overshot by the number of concurrent submitters, never by more
+    private boolean makeRoom() {
+        if (tracking.size() < maxTracked) {
+            return true;
+        }
+        synchronized (finished) {
+            while (tracking.size() >= maxTracked) {
+                Tracking oldest = finished.poll();
+                if (oldest == null) {
+                    return false;
+                }
+                tracking.remove(oldest.trackingId);
+            }
+        }
+        return true;
+    }
+
+    private void finish(Order order, SaleIntakeStatusDTO.State state, Long saleId, String reason) {
+        order.tracking().update(state, saleId, reason);
+        synchronized (finished) {
+            finished.add(order.tracking());
+        }
+    }
+
+    public SaleIntakeStatusDTO getStatus(String trackingId) {
+        Tracking entry = tracking.get(trackingId);
+        if (entry == null) {
+            throw new RuntimeException("Sale intake not found with tracking id: " + trackingId);
+        }
+        return entry.toDTO();
+    }
+
+    private long retryAfterSeconds() {
+        double seconds = queue.size() * nanosPerOrder / Math.max(1, workers) / 1_000_000_000d;
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, (long) Math.ceil(seconds)));
+    }
+
+    private void work() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Order first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                long started = System.nanoTime();
+                process(batch);
+                nanosPerOrder = 0.8 * nanosPerOrder + 0.2 * (System.nanoTime() - started) / batch.size();
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private void process(List<Order> batch) {
+        batch.forEach(order -> order.tracking().update(SaleIntakeStatusDTO.State.PROCESSING, null, null));
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> insertAndReserve(batch));
+        } catch (DataAccessException e) {
+            // e.g. a caller-supplied order number that already exists: nothing of the
+            // batch was kept, so place its orders one at a time to isolate the bad ones
+            logger.debug("Sale intake batch of {} rolled back, retrying singly: {}",
+                    batch.size(), e.getMostSpecificCause().getMessage());
+            batch.forEach(this::processAlone);
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Sale intake batch of {} failed", batch.size(), e);
+            batch.forEach(order -> finish(order, SaleIntakeStatusDTO.State.REJECTED, null,
+                    "Intake failed: " + e.getMessage()));
+            return;
+        }
+        outcomes.forEach(outcome -> finish(outcome.order(),
+                outcome.reason() == null ? SaleIntakeStatusDTO.State.CREATED : SaleIntakeStatusDTO.State.REJECTED,
+                outcome.reason() == null ? outcome.order().sale().getId() : null,
+                outcome.reason()));
+    }
+
+    private void processAlone(Order order) {
+        try {
+            SaleDTO created = saleService.createSale(order.request());
+            finish(order, SaleIntakeStatusDTO.State.CREATED, created.getId(), null);
+        } catch (RuntimeException e) {
+            finish(order, SaleIntakeStatusDTO.State.REJECTED, null, e.getMessage());
+        }
+    }
+
+    private List<Outcome> insertAndReserve(List<Order> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Sale sale = batch.get(i).sale();
+                        ps.setString(1, sale.getSaleOrderNumber());
+                        ps.setLong(2, sale.getProductId());
+                        ps.setInt(3, sale.getQuantity());
+                        ps.setBigDecimal(4, sale.getUnitPrice());
+                        ps.setBigDecimal(5, sale.getTotalAmount());
+                        ps.setString(6, sale.getStatus().name());
+                        ps.setString(7, sale.getCustomerName());
+                        ps.setString(8, sale.getDeliveryAddress());
+                        ps.setString(9, sale.getWarehouseLocation());
+                        ps.setInt(10, sale.getReservedQuantity());
+                        ps.setTimestamp(11, Timestamp.valueOf(now));
+                        ps.setTimestamp(12, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            Sale sale = batch.get(i).sale();
+            sale.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            sale.setCreatedAt(now);
+            sale.setUpdatedAt(now);
+        }
+
+        // reserved in product order so concurrent workers touch stock rows in the same sequence
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        List<Object[]> rejectedIds = new ArrayList<>();
+        List<Object[]> movedWarehouses = new ArrayList<>();
+        List<Order> byProduct = new ArrayList<>(batch);
+        byProduct.sort(Comparator.comparing((Order order) -> order.sale().getProductId())
+                .thenComparing(order -> order.sale().getId()));
+        for (Order order : byProduct) {
+            Sale sale = order.sale();
+            if (!sale.getStatus().holdsStock()) {
+                outcomes.add(new Outcome(order, null));
+                continue;
+            }
+            String reservedFrom = stockService.tryReserveStock(sale.getProductId(), sale.getWarehouseLocation(),
+                    sale.getQuantity(), sale.getId());
+            if (reservedFrom == null) {
+                rejectedIds.add(new Object[] {sale.getId()});
+                outcomes.add(new Outcome(order, "Insufficient stock for product " + sale.getProductId()
+                        + ": requested " + sale.getQuantity()));
+                continue;
+            }
+            if (!Objects.equals(reservedFrom, sale.getWarehouseLocation())) {
+                sale.setWarehouseLocation(reservedFrom);
+                movedWarehouses.add(new Object[] {reservedFrom, sale.getId()});
+            }
+            outcomes.add(new Outcome(order, null));
+        }
+        if (!rejectedIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, rejectedIds);
+        }
+        if (!movedWarehouses.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_WAREHOUSE_SQL, movedWarehouses);
+        }
+        for (Outcome outcome : outcomes) {
+            if (outcome.reason() == null) {
+                eventPublisher.publishEvent(SaleChangedEvent.created(SaleSnapshot.of(outcome.order().sale())));
+            }
+        }
+        return outcomes;
+    }
+
+    @Scheduled(fixedDelayString = "${sales.intake.status-sweep-interval-ms:60000}")
+    public void sweepStatuses() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(statusRetentionMs));
+        synchronized (finished) {
+            while (!finished.isEmpty() && finished.peek().updatedAt.isBefore(cutoff)) {
+                tracking.remove(finished.poll().trackingId);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (!stopped.await(shutdownGraceMs, TimeUnit.MILLISECONDS)) {
+            logger.warn("Sale intake stopped with {} orders still queued", queue.size());
+        }
+    }
+
+    // the request is kept as submitted so a rolled-back batch can be replayed through
+    // the synchronous path untouched by the batch attempt
+    private record Order(Tracking tracking, SaleDTO request, Sale sale) {}
+
+    private record Outcome(Order order, String reason) {}
+
+    // written by the worker that owns the order, read by status requests
+    private static class Tracking {
+        final String trackingId;
+        final String saleOrderNumber;
+        final LocalDateTime acceptedAt = LocalDateTime.now();
+        volatile SaleIntakeStatusDTO.State state = SaleIntakeStatusDTO.State.QUEUED;
+        volatile Long saleId;
+        volatile String reason;
+        volatile LocalDateTime updatedAt = acceptedAt;
+
+        Tracking(String trackingId, String saleOrderNumber) {
+            this.trackingId = trackingId;
+            this.saleOrderNumber = saleOrderNumber;
+        }
+
+        void update(SaleIntakeStatusDTO.State state, Long saleId, String reason) {
+            this.saleId = saleId;
+            this.reason = reason;
+            this.updatedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        SaleIntakeStatusDTO toDTO() {
+            SaleIntakeStatusDTO dto = new SaleIntakeStatusDTO();
+            dto.setTrackingId(trackingId);
+            dto.setState(state);
+            dto.setSaleOrderNumber(saleOrderNumber);
+            dto.setSaleId(saleId);
+            dto.setReason(reason);
+            dto.setAcceptedAt(acceptedAt);
+            dto.setUpdatedAt(updatedAt);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.supplychain.sale.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique sale order numbers such as {@code SO-2026-000123}, numbered per
+ * year. Values are reserved from {@code sale_order_sequences} a block at a time in a
+ * short transaction of their own, so the row lock that makes blocks disjoint across
+ * instances is held once per block rather than once per sale; within a block numbers
+ * come from an atomic counter. Numbers left in a block when an instance stops are
+ * skipped, so the series is unique and increasing per instance but not gap-free.
+ */
+@Component
+public class SaleOrderNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleOrderNumberAllocator.class);
+
+    private static final String ADVANCE_SQL =
+            "UPDATE sale_order_sequences SET next_value = next_value + ?, updated_at = ? WHERE name = ?";
+
+    private static final String READ_SQL = "SELECT next_value FROM sale_order_sequences WHERE name = ?";
+
+    private static final String CREATE_SQL =
+            "INSERT INTO sale_order_sequences (name, next_value, updated_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate blockTransaction;
+    private final Object refillLock = new Object();
+    private volatile Block block;
+
+    @Value("${sales.order-number.prefix:SO}")
+    private String prefix;
+
+    @Value("${sales.order-number.block-size:1000}")
+    private int blockSize;
+
+    public SaleOrderNumberAllocator(PlatformTransactionManager transactionManager) {
+        // independent of the caller's transaction: a block must stay reserved even if
+        // the sale that triggered the refill rolls back
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        this.blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String next() {
+        int year = LocalDate.now().getYear();
+        while (true) {
+            Block current = block;
+            if (current != null && current.year() == year) {
+                long value = current.next().getAndIncrement();
+                if (value < current.limit()) {
+                    return String.format("%s-%d-%06d", prefix, year, value);
+                }
+            }
+            synchronized (refillLock) {
+                if (block == current) {
+                    block = reserve(year);
+                }
+            }
+        }
+    }
+
+    private Block reserve(int year) {
+        String name = prefix + "-" + year;
+        while (true) {
+            Long limit = blockTransaction.execute(status -> {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                if (jdbcTemplate.update(ADVANCE_SQL, blockSize, now, name) == 0) {
+                    try {
+                        jdbcTemplate.update(CREATE_SQL, name, 1L + blockSize, now);
+                    } catch (DuplicateKeyException e) {
+                        // another instance started the series first; advance it next time round
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return 1L + blockSize;
+                }
+                return jdbcTemplate.queryForObject(READ_SQL, Long.class, name);
+            });
+            if (limit != null) {
+                logger.debug("Reserved sale order numbers {} to {} of {}", limit - blockSize, limit - 1, name);
+                return new Block(year, new AtomicLong(limit - blockSize), limit);
+            }
+        }
+    }
+
+    // numbers from next (inclusive) up to limit (exclusive) belong to this instance
+    private record Block(int year, AtomicLong next, long limit) {}
+}
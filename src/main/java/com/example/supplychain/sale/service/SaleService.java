@@ -1,30 +1,67 @@
 package com.example.supplychain.sale.service;
 
 import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.dto.SalePageDTO;
 import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
 import com.example.supplychain.sale.mapper.SaleMapper;
 import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleSpecifications;
+import com.example.supplychain.stock.service.StockService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class SaleService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private SaleRepository saleRepository;
 
     @Autowired
     private SaleMapper saleMapper;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private SaleOrderNumberAllocator orderNumberAllocator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public SaleDTO createSale(SaleDTO saleDTO) {
         Sale sale = saleMapper.toEntity(saleDTO);
+        if (sale.getSaleOrderNumber() == null || sale.getSaleOrderNumber().isBlank()) {
+            sale.setSaleOrderNumber(orderNumberAllocator.next());
+        }
         if (sale.getStatus() == null) {
             sale.setStatus(Sale.SaleStatus.PENDING);
         }
+        sale.setReservedQuantity(sale.getStatus().holdsStock() ? sale.getQuantity() : 0);
         Sale savedSale = saleRepository.save(sale);
+        if (savedSale.getReservedQuantity() > 0) {
+            // reserved after the insert so the movement can reference the sale; a
+            // shortfall rolls the insert back with the rest of the transaction
+            savedSale.setWarehouseLocation(stockService.reserveStock(savedSale.getProductId(),
+                    savedSale.getWarehouseLocation(), savedSale.getReservedQuantity(), savedSale.getId()));
+        }
+        eventPublisher.publishEvent(SaleChangedEvent.created(SaleSnapshot.of(savedSale)));
         return saleMapper.toDTO(savedSale);
     }
 
@@ -40,27 +77,83 @@ public class SaleService {
         return saleMapper.toDTO(sale);
     }
 
-    public List<SaleDTO> getAllSales() {
-        return saleRepository.findAll().stream()
-                .map(saleMapper::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * A page of sales matching the filters, newest first. {@code cursor} is the
+     * {@code nextCursor} of the previous page; the query only carries the filters that
+     * were given, and continues from the cursor with a row-value seek. A page is only
+     * as cheap as the first one when an index starts with the filtered column and ends
+     * in (created_at, id); other filter combinations still read and discard rows.
+     */
+    public SalePageDTO getSales(String status, Long productId, String customerName,
+                                LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Specification<Sale>> filters = new ArrayList<>();
+        if (status != null) {
+            filters.add(SaleSpecifications.hasStatus(Sale.SaleStatus.valueOf(status.toUpperCase())));
+        }
+        if (productId != null) {
+            filters.add(SaleSpecifications.hasProduct(productId));
+        }
+        if (customerName != null) {
+            filters.add(SaleSpecifications.hasCustomer(customerName));
+        }
+        if (from != null) {
+            filters.add(SaleSpecifications.createdFrom(from));
+        }
+        if (to != null) {
+            filters.add(SaleSpecifications.createdBefore(to));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            SaleCursor after = SaleCursor.decode(cursor);
+            filters.add(SaleSpecifications.before(after.createdAt(), after.id()));
+        }
+        List<Sale> rows = saleRepository.findBy(Specification.allOf(filters), query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Sale> page = hasMore ? rows.subList(0, pageSize) : rows;
+        Sale last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return new SalePageDTO(
+                page.stream().map(saleMapper::toDTO).collect(Collectors.toList()),
+                hasMore,
+                hasMore ? new SaleCursor(last.getCreatedAt(), last.getId()).encode() : null);
+    }
+
+    public SalePageDTO getSalesByStatus(String status, String cursor, int size) {
+        return getSales(status, null, null, null, null, cursor, size);
     }
 
-    public List<SaleDTO> getSalesByStatus(String status) {
-        return saleRepository.findByStatus(status).stream()
-                .map(saleMapper::toDTO)
-                .collect(Collectors.toList());
+    public SalePageDTO getSalesByProduct(Long productId, String cursor, int size) {
+        return getSales(null, productId, null, null, null, cursor, size);
     }
 
-    public List<SaleDTO> getSalesByProduct(Long productId) {
-        return saleRepository.findByProductId(productId).stream()
-                .map(saleMapper::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Position after the last row of a page, passed to clients as an opaque token.
+     */
+    private record SaleCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SaleCursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new SaleCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (IllegalArgumentException | DateTimeException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid sales cursor: " + token);
+            }
+        }
     }
 
+    @Transactional
     public SaleDTO updateSale(Long id, SaleDTO saleDTO) {
         Sale sale = saleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
+        SaleSnapshot before = SaleSnapshot.of(sale);
 
         sale.setQuantity(saleDTO.getQuantity());
         sale.setUnitPrice(saleDTO.getUnitPrice());
@@ -69,14 +162,34 @@ public class SaleService {
         sale.setCustomerName(saleDTO.getCustomerName());
         sale.setDeliveryAddress(saleDTO.getDeliveryAddress());
 
+        // a sale from before reservations were recorded took no stock, so it moves none
+        Integer reservedBefore = sale.getReservedQuantity();
+        if (reservedBefore != null) {
+            int reservedAfter = sale.getStatus().holdsStock() ? sale.getQuantity() : 0;
+            if (reservedAfter > reservedBefore) {
+                sale.setWarehouseLocation(stockService.reserveStock(sale.getProductId(), sale.getWarehouseLocation(),
+                        reservedAfter - reservedBefore, sale.getId()));
+            } else if (reservedAfter < reservedBefore) {
+                stockService.releaseStock(sale.getProductId(), sale.getWarehouseLocation(),
+                        reservedBefore - reservedAfter, sale.getId());
+            }
+            sale.setReservedQuantity(reservedAfter);
+        }
+
         Sale updatedSale = saleRepository.save(sale);
+        eventPublisher.publishEvent(SaleChangedEvent.updated(before, SaleSnapshot.of(updatedSale)));
         return saleMapper.toDTO(updatedSale);
     }
 
+    @Transactional
     public void deleteSale(Long id) {
-        if (!saleRepository.existsById(id)) {
-            throw new RuntimeException("Sale not found with id: " + id);
+        Sale sale = saleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
+        if (sale.getReservedQuantity() != null && sale.getReservedQuantity() > 0) {
+            stockService.releaseStock(sale.getProductId(), sale.getWarehouseLocation(),
+                    sale.getReservedQuantity(), sale.getId());
         }
-        saleRepository.deleteById(id);
+        saleRepository.delete(sale);
+        eventPublisher.publishEvent(SaleChangedEvent.deleted(SaleSnapshot.of(sale)));
     }
 }
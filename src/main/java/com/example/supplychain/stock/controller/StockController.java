@@ -1,16 +1,28 @@
 package com.example.supplychain.stock.controller;
 
+import com.example.supplychain.stock.dto.StockAdjustmentRequestDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentResultDTO;
+import com.example.supplychain.stock.dto.StockCacheStatsDTO;
+import com.example.supplychain.stock.dto.StockContentionDTO;
 import com.example.supplychain.stock.dto.StockDTO;
+import com.example.supplychain.stock.dto.StockLevelAtDTO;
+import com.example.supplychain.stock.dto.StockMovementDTO;
+import com.example.supplychain.stock.service.LowStockAlertService;
+import com.example.supplychain.stock.service.StockJournalService;
 import com.example.supplychain.stock.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,6 +33,12 @@ public class StockController {
     @Autowired
     private StockService stockService;
 
+    @Autowired
+    private StockJournalService stockJournalService;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     @Operation(summary = "Create new stock", description = "Create a new stock entry")
@@ -29,6 +47,36 @@ public class StockController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdStock);
     }
 
+    @PostMapping("/adjustments/bulk")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Bulk adjust stock",
+            description = "Apply quantity deltas to many products in one transaction and report each line's outcome")
+    public ResponseEntity<StockAdjustmentResultDTO> bulkAdjust(@Valid @RequestBody StockAdjustmentRequestDTO request) {
+        return ResponseEntity.ok(stockService.bulkAdjust(request));
+    }
+
+    @PostMapping("/{id}/adjust")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Adjust stock quantity",
+            description = "Add a positive or negative delta to one stock row, retrying automatically on concurrent changes")
+    public ResponseEntity<StockDTO> adjustStock(@PathVariable Long id, @RequestParam int delta) {
+        return ResponseEntity.ok(stockService.adjustStock(id, delta));
+    }
+
+    @GetMapping("/contention")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get stock contention", description = "Products with the most concurrent update conflicts since startup")
+    public ResponseEntity<List<StockContentionDTO>> getContention(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(stockService.getContention(limit));
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get stock cache statistics", description = "Hit, miss, eviction and invalidation counts of the stock-by-product near-cache")
+    public ResponseEntity<StockCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(stockService.getCacheStats());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
     @Operation(summary = "Get stock by ID", description = "Retrieve stock by its ID")
@@ -39,10 +87,32 @@ public class StockController {
 
     @GetMapping("/product/{productId}")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
-    @Operation(summary = "Get stock by product ID", description = "Retrieve stock by product ID")
-    public ResponseEntity<StockDTO> getStockByProductId(@PathVariable Long productId) {
-        StockDTO stock = stockService.getStockByProductId(productId);
-        return ResponseEntity.ok(stock);
+    @Operation(summary = "Get stock by product ID", description = "Retrieve the product's stock in every warehouse, fullest first; fresh=true bypasses the cache")
+    public ResponseEntity<List<StockDTO>> getStocksByProductId(@PathVariable Long productId,
+                                                               @RequestParam(defaultValue = "false") boolean fresh) {
+        List<StockDTO> stocks = stockService.getStocksByProductId(productId, fresh);
+        return ResponseEntity.ok(stocks);
+    }
+
+    @GetMapping("/product/{productId}/movements")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get stock movements", description = "Journal of quantity changes for a product, oldest first (default last 7 days)")
+    public ResponseEntity<List<StockMovementDTO>> getMovements(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        return ResponseEntity.ok(stockJournalService.getMovements(productId, start, end));
+    }
+
+    @GetMapping("/product/{productId}/at")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Get stock at a point in time", description = "Quantity on hand at the given time, rebuilt from the nearest snapshot and the journal")
+    public ResponseEntity<StockLevelAtDTO> getQuantityAt(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(stockJournalService.getQuantityAt(productId, at));
     }
 
     @GetMapping
@@ -61,9 +131,17 @@ public class StockController {
         return ResponseEntity.ok(stocks);
     }
 
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Stream low stock alerts",
+            description = "Server-sent events: 'low' when a row drops below its minimum level, 'recovered' once it is restocked past it")
+    public SseEmitter streamLowStockAlerts() {
+        return lowStockAlertService.subscribe();
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
-    @Operation(summary = "Update stock", description = "Update an existing stock entry")
+    @Operation(summary = "Update stock", description = "Update an existing stock entry; send the version last read to reject stale overwrites")
     public ResponseEntity<StockDTO> updateStock(@PathVariable Long id, @Valid @RequestBody StockDTO stockDTO) {
         StockDTO updatedStock = stockService.updateStock(id, stockDTO);
         return ResponseEntity.ok(updatedStock);
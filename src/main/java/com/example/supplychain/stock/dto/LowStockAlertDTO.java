@@ -0,0 +1,41 @@
+package com.example.supplychain.stock.dto;
+
+import java.time.LocalDateTime;
+
+public class LowStockAlertDTO {
+
+    public enum Type { LOW, RECOVERED }
+
+    private Long sequence;
+    private Type type;
+    private Long stockId;
+    private Long productId;
+    private String warehouseLocation;
+    private Integer quantity;
+    private Integer minimumLevel;
+    private LocalDateTime occurredAt;
+
+    public Long getSequence() { return sequence; }
+    public void setSequence(Long sequence) { this.sequence = sequence; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getStockId() { return stockId; }
+    public void setStockId(Long stockId) { this.stockId = stockId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Integer getMinimumLevel() { return minimumLevel; }
+    public void setMinimumLevel(Integer minimumLevel) { this.minimumLevel = minimumLevel; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
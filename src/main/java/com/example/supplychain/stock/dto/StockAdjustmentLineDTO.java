@@ -0,0 +1,23 @@
+package com.example.supplychain.stock.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class StockAdjustmentLineDTO {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+
+    private String warehouseLocation;
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getDelta() { return delta; }
+    public void setDelta(Integer delta) { this.delta = delta; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+}
@@ -0,0 +1,38 @@
+package com.example.supplychain.stock.dto;
+
+public class StockAdjustmentLineResultDTO {
+
+    private Integer line;
+    private Long productId;
+    private Integer delta;
+    private String warehouseLocation;
+    private String status;
+    private Integer quantity;
+
+    public StockAdjustmentLineResultDTO() {}
+
+    public StockAdjustmentLineResultDTO(Integer line, Long productId, Integer delta, String status) {
+        this.line = line;
+        this.productId = productId;
+        this.delta = delta;
+        this.status = status;
+    }
+
+    public Integer getLine() { return line; }
+    public void setLine(Integer line) { this.line = line; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getDelta() { return delta; }
+    public void setDelta(Integer delta) { this.delta = delta; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
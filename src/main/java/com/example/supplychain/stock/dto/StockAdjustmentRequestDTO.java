@@ -0,0 +1,22 @@
+package com.example.supplychain.stock.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class StockAdjustmentRequestDTO {
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 10000, message = "At most 10000 lines per request")
+    private List<@Valid StockAdjustmentLineDTO> lines;
+
+    private boolean atomic;
+
+    public List<StockAdjustmentLineDTO> getLines() { return lines; }
+    public void setLines(List<StockAdjustmentLineDTO> lines) { this.lines = lines; }
+
+    public boolean isAtomic() { return atomic; }
+    public void setAtomic(boolean atomic) { this.atomic = atomic; }
+}
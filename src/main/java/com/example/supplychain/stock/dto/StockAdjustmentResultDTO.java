@@ -0,0 +1,27 @@
+package com.example.supplychain.stock.dto;
+
+import java.util.List;
+
+public class StockAdjustmentResultDTO {
+
+    private Integer applied;
+    private Integer failed;
+    private Boolean rolledBack;
+    private Long durationMs;
+    private List<StockAdjustmentLineResultDTO> lines;
+
+    public Integer getApplied() { return applied; }
+    public void setApplied(Integer applied) { this.applied = applied; }
+
+    public Integer getFailed() { return failed; }
+    public void setFailed(Integer failed) { this.failed = failed; }
+
+    public Boolean getRolledBack() { return rolledBack; }
+    public void setRolledBack(Boolean rolledBack) { this.rolledBack = rolledBack; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public List<StockAdjustmentLineResultDTO> getLines() { return lines; }
+    public void setLines(List<StockAdjustmentLineResultDTO> lines) { this.lines = lines; }
+}
@@ -0,0 +1,30 @@
+package com.example.supplychain.stock.dto;
+
+public class StockContentionDTO {
+
+    private Long productId;
+    private long conflicts;
+    private long retries;
+    private long giveUps;
+
+    public StockContentionDTO() {}
+
+    public StockContentionDTO(Long productId, long conflicts, long retries, long giveUps) {
+        this.productId = productId;
+        this.conflicts = conflicts;
+        this.retries = retries;
+        this.giveUps = giveUps;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public long getConflicts() { return conflicts; }
+    public void setConflicts(long conflicts) { this.conflicts = conflicts; }
+
+    public long getRetries() { return retries; }
+    public void setRetries(long retries) { this.retries = retries; }
+
+    public long getGiveUps() { return giveUps; }
+    public void setGiveUps(long giveUps) { this.giveUps = giveUps; }
+}
@@ -24,6 +24,9 @@ public class StockDTO {
 
     private String warehouseLocation;
 
+    // on update, the version the client last read; a stale value is rejected instead of overwriting
+    private Long version;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -41,4 +44,7 @@ public class StockDTO {
 
     public String getWarehouseLocation() { return warehouseLocation; }
     public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
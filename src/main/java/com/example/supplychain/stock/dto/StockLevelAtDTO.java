@@ -0,0 +1,27 @@
+package com.example.supplychain.stock.dto;
+
+import java.time.LocalDateTime;
+
+public class StockLevelAtDTO {
+
+    private Long productId;
+    private LocalDateTime at;
+    private Long quantity;
+    private LocalDateTime snapshotTakenAt;
+    private Long replayedMovements;
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public LocalDateTime getAt() { return at; }
+    public void setAt(LocalDateTime at) { this.at = at; }
+
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+
+    public LocalDateTime getSnapshotTakenAt() { return snapshotTakenAt; }
+    public void setSnapshotTakenAt(LocalDateTime snapshotTakenAt) { this.snapshotTakenAt = snapshotTakenAt; }
+
+    public Long getReplayedMovements() { return replayedMovements; }
+    public void setReplayedMovements(Long replayedMovements) { this.replayedMovements = replayedMovements; }
+}
@@ -0,0 +1,35 @@
+package com.example.supplychain.stock.dto;
+
+import java.time.LocalDateTime;
+
+public class StockMovementDTO {
+
+    private Long id;
+    private Long productId;
+    private String warehouseLocation;
+    private Integer delta;
+    private String reason;
+    private Long referenceSaleId;
+    private LocalDateTime occurredAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Integer getDelta() { return delta; }
+    public void setDelta(Integer delta) { this.delta = delta; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public Long getReferenceSaleId() { return referenceSaleId; }
+    public void setReferenceSaleId(Long referenceSaleId) { this.referenceSaleId = referenceSaleId; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
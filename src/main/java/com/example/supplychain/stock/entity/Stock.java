@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stocks")
+@Table(name = "stocks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stocks_product_warehouse",
+                columnNames = {"product_id", "warehouse_location"}),
+        indexes = {
+                @Index(name = "idx_stocks_reorder", columnList = "quantity, minimum_level, maximum_level, product_id"),
+                @Index(name = "idx_stocks_warehouse", columnList = "warehouse_location")
+        })
 public class Stock {
 
     @Id
@@ -26,6 +32,11 @@ public class Stock {
     @Column(name = "warehouse_location")
     private String warehouseLocation;
 
+    // bumped by every write, including the conditional UPDATEs that bypass the entity
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -61,6 +72,9 @@ public class Stock {
     public String getWarehouseLocation() { return warehouseLocation; }
     public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,53 @@
+package com.example.supplychain.stock.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_level_snapshots",
+        indexes = {
+                @Index(name = "idx_stock_level_snapshots_product_time", columnList = "product_id, taken_at"),
+                @Index(name = "idx_stock_level_snapshots_product_movement", columnList = "product_id, last_movement_id")
+        })
+public class StockLevelSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    public StockLevelSnapshot() {}
+
+    public StockLevelSnapshot(Long productId, Long quantity, Long lastMovementId, LocalDateTime takenAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.lastMovementId = lastMovementId;
+        this.takenAt = takenAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+
+    public Long getLastMovementId() { return lastMovementId; }
+    public void setLastMovementId(Long lastMovementId) { this.lastMovementId = lastMovementId; }
+
+    public LocalDateTime getTakenAt() { return takenAt; }
+    public void setTakenAt(LocalDateTime takenAt) { this.takenAt = takenAt; }
+}
@@ -0,0 +1,58 @@
+package com.example.supplychain.stock.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_movements",
+        indexes = @Index(name = "idx_stock_movements_product_time", columnList = "product_id, occurred_at"))
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_location", updatable = false)
+    private String warehouseLocation;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(nullable = false, length = 16, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private Reason reason;
+
+    @Column(name = "reference_sale_id", updatable = false)
+    private Long referenceSaleId;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Integer getDelta() { return delta; }
+    public void setDelta(Integer delta) { this.delta = delta; }
+
+    public Reason getReason() { return reason; }
+    public void setReason(Reason reason) { this.reason = reason; }
+
+    public Long getReferenceSaleId() { return referenceSaleId; }
+    public void setReferenceSaleId(Long referenceSaleId) { this.referenceSaleId = referenceSaleId; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public enum Reason {
+        OPENING, ADJUSTMENT, SALE_RESERVED, SALE_RELEASED, REMOVED
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.supplychain.stock.event;
+
+import com.example.supplychain.stock.entity.StockMovement;
+
+/**
+ * Published by StockService whenever a stock row is created, updated or deleted.
+ * {@code before} is null for creations and {@code after} is null for deletions.
+ * {@code referenceSaleId} is set when the change was made on behalf of a sale.
+ */
+public class StockChangedEvent {
+
+    private final StockSnapshot before;
+    private final StockSnapshot after;
+    private final StockMovement.Reason reason;
+    private final Long referenceSaleId;
+
+    public StockChangedEvent(StockSnapshot before, StockSnapshot after,
+                             StockMovement.Reason reason, Long referenceSaleId) {
+        this.before = before;
+        this.after = after;
+        this.reason = reason;
+        this.referenceSaleId = referenceSaleId;
+    }
+
+    public static StockChangedEvent created(StockSnapshot after) {
+        return new StockChangedEvent(null, after, StockMovement.Reason.OPENING, null);
+    }
+
+    public static StockChangedEvent updated(StockSnapshot before, StockSnapshot after) {
+        return new StockChangedEvent(before, after, StockMovement.Reason.ADJUSTMENT, null);
+    }
+
+    public static StockChangedEvent forSale(StockSnapshot before, StockSnapshot after,
+                                            StockMovement.Reason reason, Long saleId) {
+        return new StockChangedEvent(before, after, reason, saleId);
+    }
+
+    public static StockChangedEvent deleted(StockSnapshot before) {
+        return new StockChangedEvent(before, null, StockMovement.Reason.REMOVED, null);
+    }
+
+    public StockSnapshot getBefore() { return before; }
+    public StockSnapshot getAfter() { return after; }
+    public StockMovement.Reason getReason() { return reason; }
+    public Long getReferenceSaleId() { return referenceSaleId; }
+
+    public int getQuantityDelta() {
+        return (after != null ? after.getQuantity() : 0) - (before != null ? before.getQuantity() : 0);
+    }
+}
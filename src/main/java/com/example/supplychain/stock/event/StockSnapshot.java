@@ -0,0 +1,46 @@
+package com.example.supplychain.stock.event;
+
+import com.example.supplychain.stock.entity.Stock;
+
+public final class StockSnapshot {
+
+    private final Long id;
+    private final Long productId;
+    private final int quantity;
+    private final int minimumLevel;
+    private final int maximumLevel;
+    private final String warehouseLocation;
+
+    private StockSnapshot(Stock stock) {
+        this.id = stock.getId();
+        this.productId = stock.getProductId();
+        this.quantity = stock.getQuantity();
+        this.minimumLevel = stock.getMinimumLevel();
+        this.maximumLevel = stock.getMaximumLevel();
+        this.warehouseLocation = stock.getWarehouseLocation();
+    }
+
+    private StockSnapshot(StockSnapshot source, int quantity) {
+        this.id = source.id;
+        this.productId = source.productId;
+        this.quantity = quantity;
+        this.minimumLevel = source.minimumLevel;
+        this.maximumLevel = source.maximumLevel;
+        this.warehouseLocation = source.warehouseLocation;
+    }
+
+    public static StockSnapshot of(Stock stock) {
+        return new StockSnapshot(stock);
+    }
+
+    public StockSnapshot withQuantity(int quantity) {
+        return new StockSnapshot(this, quantity);
+    }
+
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+    public int getMinimumLevel() { return minimumLevel; }
+    public int getMaximumLevel() { return maximumLevel; }
+    public String getWarehouseLocation() { return warehouseLocation; }
+}
@@ -0,0 +1,29 @@
+package com.example.supplychain.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+    private final int requestedQuantity;
+
+    public InsufficientStockException(Long productId, int requestedQuantity) {
+        super("Insufficient stock for product " + productId + ": requested " + requestedQuantity);
+        this.productId = productId;
+        this.requestedQuantity = requestedQuantity;
+    }
+
+    // the product has no stock row at all, or none in the requested warehouse
+    public InsufficientStockException(Long productId, String warehouseLocation, int requestedQuantity) {
+        super("Product " + productId + " is not stocked"
+                + (warehouseLocation != null ? " in warehouse " + warehouseLocation : "")
+                + ": requested " + requestedQuantity);
+        this.productId = productId;
+        this.requestedQuantity = requestedQuantity;
+    }
+
+    public Long getProductId() { return productId; }
+    public int getRequestedQuantity() { return requestedQuantity; }
+}
@@ -0,0 +1,17 @@
+package com.example.supplychain.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockUpdateConflictException extends RuntimeException {
+
+    private final Long stockId;
+
+    public StockUpdateConflictException(Long stockId, String reason) {
+        super("Stock " + stockId + " was modified concurrently: " + reason);
+        this.stockId = stockId;
+    }
+
+    public Long getStockId() { return stockId; }
+}
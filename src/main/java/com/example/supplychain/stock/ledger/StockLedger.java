@@ -0,0 +1,409 @@
+package com.example.supplychain.stock.ledger;
+
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.entity.StockLedgerCheckpoint;
+import com.example.supplychain.stock.event.StockSnapshot;
+import com.example.supplychain.stock.exception.InsufficientStockException;
+import com.example.supplychain.stock.repository.StockLedgerCheckpointRepository;
+import com.example.supplychain.stock.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock quantities for hot stock rows, keyed by stock id (one row per
+ * product and warehouse). Adjustments are checked against the non-negative invariant
+ * under a per-stripe lock, appended to a local write-ahead log and acknowledged once
+ * the log is synced; the net delta per row is flushed to
+ * {@code stocks} in one batched transaction per interval, together with the log
+ * sequence it covers. On startup any logged deltas past that checkpoint are replayed.
+ * <p>
+ * Inside a transaction a change is only logged once the transaction commits, so the
+ * log never holds deltas for work that was rolled back. Until then a decrease is held
+ * back from the available quantity and an increase is not yet offered; rolling back
+ * just releases the hold, which can never break the non-negative invariant.
+ * <p>
+ * The ledger owns the quantity of every row it has loaded, so it is only correct
+ * when a single instance writes stock (or products are routed to a fixed instance).
+ */
+@Component
+@ConditionalOnProperty(name = "stock.ledger.enabled", havingValue = "true")
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE stocks SET quantity = quantity + ?, version = version + 1, updated_at = ? WHERE id = ?";
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${stock.ledger.wal-path:./data/stock-ledger.wal}")
+    private String walPath;
+
+    @Value("${stock.ledger.node-id:default}")
+    private String nodeId;
+
+    @Value("${stock.ledger.stripes:64}")
+    private int stripeCount;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // adjusters share the read side; a flush takes the write side just long enough to
+    // drain every pending delta and note the log sequence they correspond to
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Object flushMutex = new Object();
+    private ReentrantLock[] stripes;
+    private StockLedgerWal wal;
+    private long checkpointSequence;
+
+    @PostConstruct
+    void start() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        wal = new StockLedgerWal(Path.of(walPath));
+        replay();
+    }
+
+    private void replay() {
+        checkpointSequence = checkpointRepository.findById(nodeId)
+                .map(StockLedgerCheckpoint::getLastSequence)
+                .orElse(0L);
+        Map<Long, Long> deltas = new TreeMap<>();
+        long lastSequence = checkpointSequence;
+        for (StockLedgerWal.Record record : wal.readAll()) {
+            if (record.sequence() > checkpointSequence) {
+                deltas.merge(record.stockId(), (long) record.delta(), Long::sum);
+            }
+            lastSequence = Math.max(lastSequence, record.sequence());
+        }
+        if (lastSequence > checkpointSequence) {
+            persist(deltas, lastSequence);
+            logger.info("Replayed stock ledger up to sequence {} ({} rows)", lastSequence, deltas.size());
+        }
+        wal.truncate();
+        wal.startAfter(lastSequence);
+    }
+
+    /**
+     * Current state of a stock row, loading it into the ledger on first use.
+     */
+    public StockSnapshot get(Long stockId) {
+        Entry entry = entry(stockId);
+        ReentrantLock stripe = stripe(stockId);
+        stripe.lock();
+        try {
+            return entry.snapshot();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Quantity held by the ledger for a row it has already loaded.
+     */
+    public OptionalInt peekQuantity(Long stockId) {
+        Entry entry = entries.get(stockId);
+        if (entry == null) {
+            return OptionalInt.empty();
+        }
+        ReentrantLock stripe = stripe(stockId);
+        stripe.lock();
+        try {
+            return OptionalInt.of(entry.available);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Applies {@code delta} to a row's quantity, refusing to go below zero, and
+     * returns the before and after states once the change is durable, or, inside a
+     * transaction, once it is held until the transaction completes.
+     */
+    public StockSnapshot[] adjust(Long stockId, int delta) {
+        return apply(stockId, (current, productId) -> {
+            if (current + delta < 0) {
+                throw new InsufficientStockException(productId, -delta);
+            }
+            return delta;
+        });
+    }
+
+    /**
+     * Sets a row's quantity outright, recorded as the delta from the current value.
+     */
+    public StockSnapshot[] set(Long stockId, int quantity) {
+        return apply(stockId, (current, productId) -> quantity - current);
+    }
+
+    /**
+     * Picks up edited levels or location without touching the ledger quantity.
+     */
+    public void refresh(Stock stock) {
+        ReentrantLock stripe = stripe(stock.getId());
+        stripe.lock();
+        try {
+            Entry entry = entries.get(stock.getId());
+            if (entry != null) {
+                entry.template = StockSnapshot.of(stock);
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public void evict(Long stockId) {
+        ReentrantLock stripe = stripe(stockId);
+        stripe.lock();
+        try {
+            entries.remove(stockId);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private StockSnapshot[] apply(Long stockId, DeltaFunction deltaFunction) {
+        Entry entry = entry(stockId);
+        boolean deferred = TransactionSynchronizationManager.isSynchronizationActive();
+        StockSnapshot before;
+        StockSnapshot after;
+        int delta;
+        long sequence = 0;
+        flushLock.readLock().lock();
+        try {
+            ReentrantLock stripe = stripe(stockId);
+            stripe.lock();
+            try {
+                delta = deltaFunction.deltaFor(entry.available, entry.template.getProductId());
+                before = entry.snapshot();
+                if (delta == 0) {
+                    return new StockSnapshot[] {before, before};
+                }
+                after = before.withQuantity(before.getQuantity() + delta);
+                if (deferred) {
+                    // hold a decrease back now so nobody else can take the same units
+                    entry.available += Math.min(delta, 0);
+                } else {
+                    sequence = log(stockId, entry, delta);
+                    entry.available += delta;
+                }
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        if (deferred) {
+            int held = delta;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        commit(stockId, entry, held);
+                    } else {
+                        release(stockId, entry, held);
+                    }
+                }
+            });
+        } else {
+            wal.awaitDurable(sequence);
+        }
+        return new StockSnapshot[] {before, after};
+    }
+
+    private void commit(Long stockId, Entry entry, int delta) {
+        long sequence;
+        flushLock.readLock().lock();
+        try {
+            ReentrantLock stripe = stripe(stockId);
+            stripe.lock();
+            try {
+                if (entries.get(stockId) != entry) {
+                    // the row was deleted meanwhile
+                    return;
+                }
+                entry.available += Math.max(delta, 0);
+                sequence = log(stockId, entry, delta);
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        try {
+            wal.awaitDurable(sequence);
+        } catch (RuntimeException e) {
+            // the transaction has committed; the delta is still flushed from memory, it
+            // is only at risk if the process dies before then
+            logger.error("Could not sync committed delta {} for stock {}", delta, stockId, e);
+        }
+    }
+
+    /**
+     * Gives back units held for a transaction that did not commit. This only ever
+     * raises the available quantity, so unlike {@link #adjust} it cannot fail.
+     */
+    private void release(Long stockId, Entry entry, int delta) {
+        ReentrantLock stripe = stripe(stockId);
+        stripe.lock();
+        try {
+            entry.available -= Math.min(delta, 0);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // caller holds the flush read lock and the row's stripe lock
+    private long log(Long stockId, Entry entry, int delta) {
+        long sequence = wal.append(stockId, delta);
+        entry.unflushed += delta;
+        return sequence;
+    }
+
+    private Entry entry(Long stockId) {
+        Entry entry = entries.get(stockId);
+        if (entry != null) {
+            return entry;
+        }
+        return entries.computeIfAbsent(stockId, id -> new Entry(stockRepository.findById(id)
+                .map(StockSnapshot::of)
+                .orElseThrow(() -> new RuntimeException("Stock not found with id: " + id))));
+    }
+
+    private ReentrantLock stripe(Long stockId) {
+        return stripes[Math.floorMod(Long.hashCode(stockId), stripes.length)];
+    }
+
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval-ms:500}")
+    public void flush() {
+        synchronized (flushMutex) {
+            Map<Long, Long> deltas = new TreeMap<>();
+            long upTo;
+            flushLock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, Entry> e : entries.entrySet()) {
+                    if (e.getValue().unflushed != 0) {
+                        deltas.put(e.getKey(), (long) e.getValue().unflushed);
+                        e.getValue().unflushed = 0;
+                    }
+                }
+                upTo = wal.lastSequence();
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+            if (upTo == checkpointSequence) {
+                return;
+            }
+
+            try {
+                persist(deltas, upTo);
+            } catch (RuntimeException e) {
+                logger.warn("Stock ledger flush failed, keeping {} deltas for the next attempt", deltas.size(), e);
+                restore(deltas);
+                return;
+            }
+            checkpointSequence = upTo;
+
+            flushLock.writeLock().lock();
+            try {
+                if (wal.lastSequence() == upTo) {
+                    wal.truncate();
+                }
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the net deltas and the checkpoint in one transaction, in stock id order
+     * so concurrent writers to {@code stocks} always lock rows in the same sequence.
+     */
+    private void persist(Map<Long, Long> deltas, long upTo) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((stockId, delta) -> rows.add(new Object[] {delta, now, stockId}));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, rows);
+            }
+            checkpointRepository.save(new StockLedgerCheckpoint(nodeId, upTo));
+        });
+    }
+
+    private void restore(Map<Long, Long> deltas) {
+        flushLock.writeLock().lock();
+        try {
+            deltas.forEach((stockId, delta) -> {
+                Entry entry = entries.get(stockId);
+                if (entry != null) {
+                    entry.unflushed += delta.intValue();
+                }
+            });
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        flush();
+        wal.close();
+    }
+
+    @FunctionalInterface
+    private interface DeltaFunction {
+        int deltaFor(int currentQuantity, Long productId);
+    }
+
+    // fields are guarded by the row's stripe lock, and by the flush write lock
+    // while pending deltas are drained
+    private static class Entry {
+        StockSnapshot template;
+        int available;
+        int unflushed;
+
+        Entry(StockSnapshot loaded) {
+            this.template = loaded;
+            this.available = loaded.getQuantity();
+        }
+
+        StockSnapshot snapshot() {
+            return template.withQuantity(available);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.supplychain.stock.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of ledger deltas. Every record carries a sequence number so the
+ * database checkpoint can say exactly which records are already reflected in the
+ * {@code stocks} table. Durability uses group commit: whichever caller forces the
+ * channel makes every record written so far durable, so concurrent reservations
+ * share one fsync instead of paying for their own.
+ */
+class StockLedgerWal implements Closeable {
+
+    private static final int RECORD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Object forceLock = new Object();
+    private long nextSequence = 1;
+    private volatile long durableSequence;
+
+    StockLedgerWal(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stock ledger log: " + path, e);
+        }
+    }
+
+    /**
+     * Reads every complete record and positions the channel after the last one,
+     * dropping a torn record left by a crash mid-write.
+     */
+    synchronized List<Record> readAll() {
+        try {
+            List<Record> records = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            long position = 0;
+            while (true) {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+                    // keep reading until the record is complete or the file ends
+                }
+                if (buffer.hasRemaining()) {
+                    break;
+                }
+                buffer.flip();
+                records.add(new Record(buffer.getLong(), buffer.getLong(), buffer.getInt()));
+                position += RECORD_SIZE;
+            }
+            channel.truncate(position);
+            channel.position(position);
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stock ledger log", e);
+        }
+    }
+
+    synchronized void startAfter(long sequence) {
+        nextSequence = sequence + 1;
+        durableSequence = sequence;
+    }
+
+    synchronized long append(long stockId, int delta) {
+        long sequence = nextSequence;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(sequence).putLong(stockId).putInt(delta).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to stock ledger log", e);
+        }
+        nextSequence++;
+        return sequence;
+    }
+
+    synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Blocks until the record with the given sequence is on disk.
+     */
+    void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long target = lastSequence();
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot sync stock ledger log", e);
+            }
+            durableSequence = target;
+        }
+    }
+
+    /**
+     * Discards the file contents once every record has been checkpointed. Sequence
+     * numbers keep counting so the checkpoint stays comparable after a restart.
+     */
+    synchronized void truncate() {
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate stock ledger log", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    record Record(long sequence, long stockId, int delta) {}
+}
@@ -1,7 +1,10 @@
 package com.example.supplychain.stock.mapper;
 
 import com.example.supplychain.stock.dto.StockDTO;
+import com.example.supplychain.stock.dto.StockMovementDTO;
 import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.entity.StockMovement;
+import com.example.supplychain.stock.event.StockSnapshot;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -16,6 +19,14 @@ public class StockMapper {
         return modelMapper.map(entity, StockDTO.class);
     }
 
+    public StockDTO toDTO(StockSnapshot snapshot) {
+        return modelMapper.map(snapshot, StockDTO.class);
+    }
+
+    public StockMovementDTO toDTO(StockMovement movement) {
+        return modelMapper.map(movement, StockMovementDTO.class);
+    }
+
     public Stock toEntity(StockDTO dto) {
         return modelMapper.map(dto, Stock.class);
     }
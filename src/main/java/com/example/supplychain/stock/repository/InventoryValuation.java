@@ -0,0 +1,9 @@
+package com.example.supplychain.stock.repository;
+
+import java.math.BigDecimal;
+
+public interface InventoryValuation {
+    String getName();
+    Long getTotalQuantity();
+    BigDecimal getTotalValue();
+}
@@ -0,0 +1,6 @@
+package com.example.supplychain.stock.repository;
+
+public interface MovementReplay {
+    Long getMovementCount();
+    Long getTotal();
+}
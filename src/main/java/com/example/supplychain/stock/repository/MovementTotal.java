@@ -0,0 +1,6 @@
+package com.example.supplychain.stock.repository;
+
+public interface MovementTotal {
+    Long getProductId();
+    Long getTotal();
+}
@@ -0,0 +1,6 @@
+package com.example.supplychain.stock.repository;
+
+public interface ProductQuantity {
+    Long getProductId();
+    Long getQuantity();
+}
@@ -0,0 +1,10 @@
+package com.example.supplychain.stock.repository;
+
+public interface ReorderCandidate {
+    Long getProductId();
+    Integer getQuantity();
+    Integer getMinimumLevel();
+    Integer getMaximumLevel();
+    String getWarehouseLocation();
+    Long getSupplierId();
+}
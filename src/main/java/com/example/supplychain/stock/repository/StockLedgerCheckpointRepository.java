@@ -0,0 +1,9 @@
+package com.example.supplychain.stock.repository;
+
+import com.example.supplychain.stock.entity.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, String> {
+}
@@ -0,0 +1,25 @@
+package com.example.supplychain.stock.repository;
+
+import com.example.supplychain.stock.entity.StockLevelSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockLevelSnapshotRepository extends JpaRepository<StockLevelSnapshot, Long> {
+    Optional<StockLevelSnapshot> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(
+            Long productId, LocalDateTime at);
+
+    @Query("SELECT COALESCE(MAX(s.lastMovementId), 0) FROM StockLevelSnapshot s")
+    Long findMaxLastMovementId();
+
+    @Query("SELECT s FROM StockLevelSnapshot s WHERE s.productId IN :productIds AND s.lastMovementId = " +
+            "(SELECT MAX(s2.lastMovementId) FROM StockLevelSnapshot s2 WHERE s2.productId = s.productId)")
+    List<StockLevelSnapshot> findLatestFor(@Param("productIds") Collection<Long> productIds);
+}
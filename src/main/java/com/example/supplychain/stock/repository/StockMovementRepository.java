@@ -0,0 +1,32 @@
+package com.example.supplychain.stock.repository;
+
+import com.example.supplychain.stock.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    List<StockMovement> findByProductIdAndOccurredAtBetweenOrderByOccurredAtAscIdAsc(
+            Long productId, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM StockMovement m")
+    Long findMaxId();
+
+    @Query("SELECT COALESCE(MAX(m.id), :afterId) FROM StockMovement m WHERE m.id > :afterId AND m.occurredAt < :before")
+    Long findMaxIdOccurredBefore(@Param("afterId") Long afterId, @Param("before") LocalDateTime before);
+
+    @Query("SELECT m.productId AS productId, SUM(m.delta) AS total FROM StockMovement m " +
+            "WHERE m.id > :afterId AND m.id <= :upToId GROUP BY m.productId")
+    List<MovementTotal> sumByProduct(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Query("SELECT COUNT(m) AS movementCount, COALESCE(SUM(m.delta), 0) AS total FROM StockMovement m " +
+            "WHERE m.productId = :productId AND m.id > :afterId AND m.occurredAt <= :at")
+    MovementReplay replay(@Param("productId") Long productId,
+                          @Param("afterId") Long afterId,
+                          @Param("at") LocalDateTime at);
+}
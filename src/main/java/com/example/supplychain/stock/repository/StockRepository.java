@@ -1,14 +1,73 @@
 package com.example.supplychain.stock.repository;
 
 import com.example.supplychain.stock.entity.Stock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
-    Optional<Stock> findByProductId(Long productId);
+    List<Stock> findByProductIdOrderByQuantityDesc(Long productId);
+    Optional<Stock> findByProductIdAndWarehouseLocation(Long productId, String warehouseLocation);
+    List<Stock> findByProductIdIn(Collection<Long> productIds);
     List<Stock> findByQuantityLessThan(Integer minimumLevel);
+
+    @Query("SELECT s FROM Stock s WHERE s.quantity < s.minimumLevel")
+    List<Stock> findBelowMinimumLevel();
+
+    @Query("SELECT COUNT(s) FROM Stock s WHERE s.quantity < s.minimumLevel")
+    long countBelowMinimumLevel();
+
+    // the filter only reads columns in idx_stocks_reorder, so the database can scan the
+    // index rather than the table; warehouseLocation is not in it and is read from the
+    // row, but only for the few rows that pass the filter
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.productId AS productId, s.quantity AS quantity, s.minimumLevel AS minimumLevel, " +
+            "s.maximumLevel AS maximumLevel, s.warehouseLocation AS warehouseLocation, p.supplierId AS supplierId " +
+            "FROM Stock s LEFT JOIN Product p ON p.id = s.productId " +
+            "WHERE s.quantity < s.minimumLevel")
+    Stream<ReorderCandidate> streamReorderCandidates();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.productId AS productId, SUM(s.quantity) AS quantity FROM Stock s GROUP BY s.productId")
+    Stream<ProductQuantity> streamQuantityByProduct();
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM Stock s")
+    Long sumQuantity();
+
+    @Query("SELECT COALESCE(SUM(s.quantity * p.unitPrice), 0) " +
+            "FROM Stock s JOIN Product p ON p.id = s.productId")
+    BigDecimal sumInventoryValue();
+
+    @Query("SELECT p.category AS name, SUM(s.quantity) AS totalQuantity, SUM(s.quantity * p.unitPrice) AS totalValue " +
+            "FROM Stock s JOIN Product p ON p.id = s.productId " +
+            "GROUP BY p.category ORDER BY p.category")
+    List<InventoryValuation> valuationByCategory();
+
+    @Query("SELECT s.warehouseLocation AS name, SUM(s.quantity) AS totalQuantity, SUM(s.quantity * p.unitPrice) AS totalValue " +
+            "FROM Stock s JOIN Product p ON p.id = s.productId " +
+            "GROUP BY s.warehouseLocation ORDER BY s.warehouseLocation")
+    List<InventoryValuation> valuationByWarehouse();
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Stock s SET s.quantity = s.quantity - :quantity, s.version = s.version + 1, s.updatedAt = :now " +
+            "WHERE s.id = :stockId AND s.quantity >= :quantity")
+    int reserve(@Param("stockId") Long stockId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Stock s SET s.quantity = s.quantity + :quantity, s.version = s.version + 1, s.updatedAt = :now " +
+            "WHERE s.id = :stockId")
+    int release(@Param("stockId") Long stockId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,277 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.dto.LowStockAlertDTO;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.example.supplychain.stock.event.StockSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Detects stock rows crossing their minimum level as committed changes come in,
+ * instead of clients polling the low-stock list. A row alerts LOW when its quantity
+ * drops below {@code minimumLevel} and is only re-armed once it climbs back past the
+ * minimum plus a hysteresis band, at which point RECOVERED is sent; repeated LOW
+ * alerts for a row are further held back by a cooldown. Alerts go onto a bounded
+ * queue drained by one delivery thread that fans them out to SSE subscribers and
+ * POSTs them in batches to the configured webhooks. When the queue is full new
+ * alerts are dropped and counted; consumers resync from the low-stock list.
+ */
+@Service
+public class LowStockAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockAlertService.class);
+
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+
+    @Autowired
+    private RestClient.Builder restClientBuilder;
+
+    @Value("${stock.alerts.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${stock.alerts.hysteresis-percent:10}")
+    private int hysteresisPercent;
+
+    @Value("${stock.alerts.hysteresis-min-units:1}")
+    private int hysteresisMinUnits;
+
+    @Value("${stock.alerts.cooldown-ms:300000}")
+    private long cooldownMs;
+
+    @Value("${stock.alerts.batch-size:100}")
+    private int batchSize;
+
+    @Value("${stock.alerts.webhook-urls:}")
+    private List<String> webhookUrls;
+
+    @Value("${stock.alerts.webhook-timeout-ms:5000}")
+    private int webhookTimeoutMs;
+
+    @Value("${stock.alerts.webhook-attempts:3}")
+    private int webhookAttempts;
+
+    @Value("${stock.alerts.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${stock.alerts.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    private final Map<Long, RowState> rows = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private BlockingQueue<LowStockAlertDTO> queue;
+    private RestClient restClient;
+    private Thread deliveryThread;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        webhookUrls = webhookUrls.stream().filter(url -> !url.isBlank()).collect(Collectors.toList());
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(webhookTimeoutMs);
+        requestFactory.setReadTimeout(webhookTimeoutMs);
+        restClient = restClientBuilder.requestFactory(requestFactory).build();
+        deliveryThread = Thread.ofPlatform().daemon().name("low-stock-alerts").start(this::deliverLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        deliveryThread.interrupt();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        StockSnapshot before = event.getBefore();
+        StockSnapshot after = event.getAfter();
+        if (after == null) {
+            rows.remove(before.getId());
+            return;
+        }
+        LowStockAlertDTO[] alert = new LowStockAlertDTO[1];
+        long now = System.nanoTime();
+        rows.compute(after.getId(), (id, state) -> {
+            boolean low = state != null ? state.low() : before != null && before.getQuantity() < before.getMinimumLevel();
+            int minimum = after.getMinimumLevel();
+            if (!low && after.getQuantity() < minimum) {
+                boolean coolingDown = state != null && state.lastLowAlertNanos() != 0
+                        && now - state.lastLowAlertNanos() < TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+                if (coolingDown) {
+                    return new RowState(true, false, state.lastLowAlertNanos());
+                }
+                alert[0] = alert(LowStockAlertDTO.Type.LOW, after);
+                return new RowState(true, true, now);
+            }
+            if (low && after.getQuantity() >= minimum + band(minimum)) {
+                if (state != null && state.alerted()) {
+                    alert[0] = alert(LowStockAlertDTO.Type.RECOVERED, after);
+                }
+                return state != null ? new RowState(false, false, state.lastLowAlertNanos()) : null;
+            }
+            if (state == null && low) {
+                // first seen already below its minimum: track it, but it never crossed
+                return new RowState(true, false, 0L);
+            }
+            return state;
+        });
+        if (alert[0] != null && !queue.offer(alert[0])) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                logger.warn("Low-stock alert queue full, {} alerts dropped so far", dropped.get());
+            }
+        }
+    }
+
+    private int band(int minimum) {
+        return Math.max(hysteresisMinUnits, minimum * hysteresisPercent / 100);
+    }
+
+    private LowStockAlertDTO alert(LowStockAlertDTO.Type type, StockSnapshot stock) {
+        LowStockAlertDTO alert = new LowStockAlertDTO();
+        alert.setSequence(sequence.incrementAndGet());
+        alert.setType(type);
+        alert.setStockId(stock.getId());
+        alert.setProductId(stock.getProductId());
+        alert.setWarehouseLocation(stock.getWarehouseLocation());
+        alert.setQuantity(stock.getQuantity());
+        alert.setMinimumLevel(stock.getMinimumLevel());
+        alert.setOccurredAt(LocalDateTime.now());
+        return alert;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void deliverLoop() {
+        List<LowStockAlertDTO> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            List<LowStockAlertDTO> alerts = List.copyOf(batch);
+            batch.clear();
+            try {
+                subscribers.forEach(subscriber -> subscriber.offer(alerts));
+                webhookUrls.forEach(url -> post(url, alerts));
+            } catch (RuntimeException e) {
+                logger.warn("Low-stock alert delivery failed for {} alerts", alerts.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Webhooks are called in turn from the delivery thread, so a slow endpoint holds
+     * up later batches (and, through the bounded queue, eventually drops alerts)
+     * rather than piling up unbounded in-flight requests.
+     */
+    private void post(String url, List<LowStockAlertDTO> alerts) {
+        for (int attempt = 1; attempt <= webhookAttempts; attempt++) {
+            try {
+                restClient.post().uri(url).contentType(MediaType.APPLICATION_JSON).body(alerts)
+                        .retrieve().toBodilessEntity();
+                return;
+            } catch (RestClientException e) {
+                if (attempt == webhookAttempts) {
+                    logger.warn("Dropping {} low-stock alerts for webhook {} after {} attempts", alerts.size(), url, attempt, e);
+                    return;
+                }
+                try {
+                    Thread.sleep(500L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private record RowState(boolean low, boolean alerted, long lastLowAlertNanos) {}
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<LowStockAlertDTO> mailbox = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // unlike dashboard deltas alerts cannot be conflated, so a subscriber that falls
+        // a whole buffer behind is disconnected and has to resync
+        void offer(List<LowStockAlertDTO> alerts) {
+            for (LowStockAlertDTO alert : alerts) {
+                if (!mailbox.offer(alert)) {
+                    logger.warn("Dropping low-stock alert subscriber more than {} alerts behind", subscriberBuffer);
+                    subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+            }
+            if (sending.compareAndSet(false, true)) {
+                virtualThreadExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                LowStockAlertDTO alert;
+                while ((alert = mailbox.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(alert.getSequence()))
+                            .name(alert.getType().name().toLowerCase())
+                            .data(alert));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            if (!mailbox.isEmpty() && sending.compareAndSet(false, true)) {
+                virtualThreadExecutor.execute(this::drain);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.dto.StockContentionDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-product counts of optimistic-lock conflicts on stock rows since startup:
+ * every conflict, every retry it led to, and every update that ran out of attempts.
+ * Products with a high give-up count are candidates for the ledger or for the
+ * conditional UPDATE path instead of read-modify-write.
+ */
+@Component
+public class StockContentionTracker {
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    public void conflict(Long productId) {
+        counters(productId).conflicts.increment();
+    }
+
+    public void retry(Long productId) {
+        counters(productId).retries.increment();
+    }
+
+    public void giveUp(Long productId) {
+        counters(productId).giveUps.increment();
+    }
+
+    /**
+     * The most contended products, by conflicts and then give-ups.
+     */
+    public List<StockContentionDTO> top(int limit) {
+        return counters.entrySet().stream()
+                .map(e -> new StockContentionDTO(e.getKey(), e.getValue().conflicts.sum(),
+                        e.getValue().retries.sum(), e.getValue().giveUps.sum()))
+                .sorted(Comparator.comparingLong(StockContentionDTO::getConflicts)
+                        .thenComparingLong(StockContentionDTO::getGiveUps).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    private Counters counters(Long productId) {
+        return counters.computeIfAbsent(productId, id -> new Counters());
+    }
+
+    private static class Counters {
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder giveUps = new LongAdder();
+    }
+}
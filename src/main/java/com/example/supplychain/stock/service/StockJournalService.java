@@ -0,0 +1,241 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.dto.StockLevelAtDTO;
+import com.example.supplychain.stock.dto.StockMovementDTO;
+import com.example.supplychain.stock.entity.StockLevelSnapshot;
+import com.example.supplychain.stock.entity.StockMovement;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.example.supplychain.stock.event.StockSnapshot;
+import com.example.supplychain.stock.mapper.StockMapper;
+import com.example.supplychain.stock.repository.MovementReplay;
+import com.example.supplychain.stock.repository.MovementTotal;
+import com.example.supplychain.stock.repository.ProductQuantity;
+import com.example.supplychain.stock.repository.StockLevelSnapshotRepository;
+import com.example.supplychain.stock.repository.StockMovementRepository;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of stock movements. The movements of a transaction are inserted
+ * in one JDBC batch as it commits, so they commit or roll back with the stock change
+ * itself and the snapshot chain never misses one. Snapshots
+ * of each moved product's quantity are taken on a schedule, so a point-in-time
+ * quantity is the nearest earlier snapshot plus the movements logged after it.
+ * <p>
+ * History starts when the journal is first enabled: the first snapshot round seeds
+ * every product from the current {@code stocks} table.
+ */
+@Service
+public class StockJournalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockJournalService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO stock_movements " +
+            "(product_id, warehouse_location, delta, reason, reference_sale_id, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SEED_SQL = "INSERT INTO stock_level_snapshots " +
+            "(product_id, quantity, last_movement_id, taken_at) VALUES (?, ?, ?, ?)";
+
+    private static final int SNAPSHOT_CHUNK = 1000;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockLevelSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockMapper stockMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${stock.journal.batch-size:500}")
+    private int batchSize;
+
+    @Value("${stock.journal.settle-ms:10000}")
+    private long settleMs;
+
+    private final Object snapshotLock = new Object();
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        int delta = event.getQuantityDelta();
+        if (delta == 0) {
+            return;
+        }
+        StockSnapshot stock = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        PendingMovement movement = new PendingMovement(stock.getProductId(), stock.getWarehouseLocation(), delta,
+                event.getReason(), event.getReferenceSaleId());
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert(List.of(movement));
+            return;
+        }
+        pendingMovements().add(movement);
+    }
+
+    /**
+     * Movements of the current transaction, inserted as one batch just before it
+     * commits so the journal can never disagree with the stock rows it describes.
+     */
+    @SuppressWarnings("unchecked")
+    private List<PendingMovement> pendingMovements() {
+        List<PendingMovement> pending = (List<PendingMovement>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<PendingMovement> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                insert(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(StockJournalService.this);
+            }
+        });
+        return created;
+    }
+
+    private void insert(List<PendingMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        // stamped at commit time, which is when the movement takes effect and what
+        // takeSnapshots relies on to tell settled movements from in-flight ones
+        Timestamp occurredAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, batchSize, (ps, m) -> {
+            ps.setLong(1, m.productId());
+            ps.setString(2, m.warehouseLocation());
+            ps.setInt(3, m.delta());
+            ps.setString(4, m.reason().name());
+            ps.setObject(5, m.referenceSaleId());
+            ps.setTimestamp(6, occurredAt);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedSnapshots() {
+        synchronized (snapshotLock) {
+            if (snapshotRepository.count() > 0) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Long lastMovementId = stockMovementRepository.findMaxId();
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> chunk = new ArrayList<>(SNAPSHOT_CHUNK);
+                long seeded = 0;
+                // snapshots are per product, summed across its warehouses
+                try (Stream<ProductQuantity> totals = stockRepository.streamQuantityByProduct()) {
+                    Iterator<ProductQuantity> it = totals.iterator();
+                    while (it.hasNext()) {
+                        ProductQuantity total = it.next();
+                        chunk.add(new Object[] {total.getProductId(), total.getQuantity(), lastMovementId, now});
+                        if (chunk.size() == SNAPSHOT_CHUNK || !it.hasNext()) {
+                            jdbcTemplate.batchUpdate(SEED_SQL, chunk);
+                            seeded += chunk.size();
+                            chunk.clear();
+                        }
+                    }
+                }
+                logger.info("Seeded {} stock level snapshots", seeded);
+            });
+        }
+    }
+
+    /**
+     * Snapshots every product that moved since the previous round: its latest snapshot
+     * plus the sum of its movements up to the current last movement id.
+     */
+    @Scheduled(cron = "${stock.journal.snapshot-cron:0 0 * * * *}")
+    public void takeSnapshots() {
+        synchronized (snapshotLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long previous = snapshotRepository.findMaxLastMovementId();
+                // ids are allocated at insert but become visible at commit, so a recent
+                // id may still have a lower one in flight; only cover movements settled
+                // long enough that every id below them has committed or rolled back
+                LocalDateTime settled = LocalDateTime.now().minus(Duration.ofMillis(settleMs));
+                Long upTo = stockMovementRepository.findMaxIdOccurredBefore(previous, settled);
+                if (upTo <= previous) {
+                    return;
+                }
+                List<MovementTotal> totals = stockMovementRepository.sumByProduct(previous, upTo);
+                LocalDateTime now = LocalDateTime.now();
+                for (int from = 0; from < totals.size(); from += SNAPSHOT_CHUNK) {
+                    List<MovementTotal> chunk = totals.subList(from, Math.min(from + SNAPSHOT_CHUNK, totals.size()));
+                    Map<Long, StockLevelSnapshot> latest = snapshotRepository.findLatestFor(
+                                    chunk.stream().map(MovementTotal::getProductId).collect(Collectors.toList()))
+                            .stream()
+                            .collect(Collectors.toMap(StockLevelSnapshot::getProductId, Function.identity(), (a, b) -> a));
+                    List<StockLevelSnapshot> snapshots = new ArrayList<>(chunk.size());
+                    for (MovementTotal total : chunk) {
+                        StockLevelSnapshot base = latest.get(total.getProductId());
+                        long quantity = (base != null ? base.getQuantity() : 0L) + total.getTotal();
+                        snapshots.add(new StockLevelSnapshot(total.getProductId(), quantity, upTo, now));
+                    }
+                    snapshotRepository.saveAll(snapshots);
+                }
+                logger.debug("Took {} stock level snapshots up to movement {}", totals.size(), upTo);
+            });
+        }
+    }
+
+    public StockLevelAtDTO getQuantityAt(Long productId, LocalDateTime at) {
+        StockLevelSnapshot snapshot = snapshotRepository
+                .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, at)
+                .orElse(null);
+        long afterId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        MovementReplay replay = stockMovementRepository.replay(productId, afterId, at);
+
+        StockLevelAtDTO dto = new StockLevelAtDTO();
+        dto.setProductId(productId);
+        dto.setAt(at);
+        dto.setQuantity((snapshot != null ? snapshot.getQuantity() : 0L) + replay.getTotal());
+        dto.setSnapshotTakenAt(snapshot != null ? snapshot.getTakenAt() : null);
+        dto.setReplayedMovements(replay.getMovementCount());
+        return dto;
+    }
+
+    public List<StockMovementDTO> getMovements(Long productId, LocalDateTime from, LocalDateTime to) {
+        return stockMovementRepository.findByProductIdAndOccurredAtBetweenOrderByOccurredAtAscIdAsc(productId, from, to)
+                .stream()
+                .map(stockMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private record PendingMovement(Long productId, String warehouseLocation, int delta,
+                                   StockMovement.Reason reason, Long referenceSaleId) {}
+}
@@ -0,0 +1,140 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.dto.StockCacheStatsDTO;
+import com.example.supplychain.stock.dto.StockDTO;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.example.supplychain.stock.event.StockSnapshot;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of a product's stock rows as DTOs, so repeated reads on the order path
+ * skip both the query and the mapping. Entries expire after a TTL and are dropped as
+ * soon as a stock change for the product commits. A load that overlaps such a change
+ * is not cached: each key hashes to a generation counter bumped on invalidation, and
+ * the loaded value is only stored if its counter did not move in the meantime.
+ * <p>
+ * Cached lists are shared between callers and must be treated as read-only.
+ */
+@Component
+public class StockNearCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    @Value("${stock.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stock.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${stock.cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // access-ordered, guarded by this
+    private Map<Long, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public List<StockDTO> get(Long productId, Supplier<List<StockDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                if (now - entry.expiresAtNanos() < 0) {
+                    hits.increment();
+                    return entry.stocks();
+                }
+                entries.remove(productId);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        int stripe = stripe(productId);
+        long generation = generations.get(stripe);
+        List<StockDTO> stocks = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generations.get(stripe) == generation) {
+                entries.put(productId, new Entry(stocks, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+            }
+        }
+        return stocks;
+    }
+
+    public void invalidate(Long productId) {
+        synchronized (this) {
+            generations.incrementAndGet(stripe(productId));
+            if (entries.remove(productId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        StockSnapshot stock = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        invalidate(stock.getProductId());
+    }
+
+    public StockCacheStatsDTO getStats() {
+        StockCacheStatsDTO stats = new StockCacheStatsDTO();
+        synchronized (this) {
+            stats.setSize(entries.size());
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.setEnabled(enabled);
+        stats.setMaxEntries(maxEntries);
+        stats.setTtlMs(ttlMs);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.setEvictions(evictions.sum());
+        stats.setExpirations(expirations.sum());
+        stats.setInvalidations(invalidations.sum());
+        return stats;
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(Long.hashCode(productId), GENERATION_STRIPES);
+    }
+
+    private record Entry(List<StockDTO> stocks, long expiresAtNanos) {}
+}
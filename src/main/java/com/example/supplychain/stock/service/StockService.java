@@ -1,71 +1,541 @@
 package com.example.supplychain.stock.service;
 
+import com.example.supplychain.stock.dto.StockAdjustmentLineDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentLineResultDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentRequestDTO;
+import com.example.supplychain.stock.dto.StockAdjustmentResultDTO;
+import com.example.supplychain.stock.dto.StockCacheStatsDTO;
+import com.example.supplychain.stock.dto.StockContentionDTO;
 import com.example.supplychain.stock.dto.StockDTO;
 import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.entity.StockMovement;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.example.supplychain.stock.event.StockSnapshot;
+import com.example.supplychain.stock.exception.InsufficientStockException;
+import com.example.supplychain.stock.exception.StockUpdateConflictException;
+import com.example.supplychain.stock.ledger.StockLedger;
 import com.example.supplychain.stock.mapper.StockMapper;
 import com.example.supplychain.stock.repository.StockRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class StockService {
 
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+
+    private static final String BULK_APPLIED = "APPLIED";
+    private static final String BULK_ROLLED_BACK = "ROLLED_BACK";
+
+    private static final String ADJUST_SQL = "UPDATE stocks SET quantity = quantity + ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND quantity + ? >= 0";
+
+    private static final int IN_CHUNK = 1000;
+
     @Autowired
     private StockRepository stockRepository;
 
     @Autowired
     private StockMapper stockMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private StockLedger stockLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockContentionTracker contentionTracker;
+
+    @Autowired
+    private StockNearCache stockNearCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${stock.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    @Value("${stock.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${stock.optimistic.backoff-base-ms:10}")
+    private long baseBackoffMs;
+
+    @Value("${stock.optimistic.backoff-max-ms:200}")
+    private long maxBackoffMs;
+
+    @Transactional
     public StockDTO createStock(StockDTO stockDTO) {
         Stock stock = stockMapper.toEntity(stockDTO);
+        stock.setVersion(null);
         Stock savedStock = stockRepository.save(stock);
+        eventPublisher.publishEvent(StockChangedEvent.created(StockSnapshot.of(savedStock)));
         return stockMapper.toDTO(savedStock);
     }
 
     public StockDTO getStockById(Long id) {
         Stock stock = stockRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Stock not found with id: " + id));
-        return stockMapper.toDTO(stock);
+        return withLedgerQuantity(stockMapper.toDTO(stock));
+    }
+
+    /**
+     * Every warehouse row holding the product, fullest first, served from the near-cache.
+     */
+    public List<StockDTO> getStocksByProductId(Long productId) {
+        return stockNearCache.get(productId, () -> loadStocksByProductId(productId));
+    }
+
+    /**
+     * Same as {@link #getStocksByProductId(Long)}; with {@code fresh} set the cache is
+     * skipped, for callers about to act on the quantities. Reservations themselves never
+     * read through the cache: they decide with a conditional UPDATE against the row.
+     */
+    public List<StockDTO> getStocksByProductId(Long productId, boolean fresh) {
+        return fresh ? loadStocksByProductId(productId) : getStocksByProductId(productId);
+    }
+
+    public StockCacheStatsDTO getCacheStats() {
+        return stockNearCache.getStats();
     }
 
-    public StockDTO getStockByProductId(Long productId) {
-        Stock stock = stockRepository.findByProductId(productId)
-                .orElseThrow(() -> new RuntimeException("Stock not found for product: " + productId));
-        return stockMapper.toDTO(stock);
+    private List<StockDTO> loadStocksByProductId(Long productId) {
+        return stockRepository.findByProductIdOrderByQuantityDesc(productId).stream()
+                .map(stock -> stockLedger != null ? stockMapper.toDTO(stockLedger.get(stock.getId())) : stockMapper.toDTO(stock))
+                .sorted(Comparator.comparing(StockDTO::getQuantity).reversed())
+                .collect(Collectors.toList());
     }
 
     public List<StockDTO> getAllStocks() {
         return stockRepository.findAll().stream()
                 .map(stockMapper::toDTO)
+                .map(this::withLedgerQuantity)
                 .collect(Collectors.toList());
     }
 
     public List<StockDTO> getLowStockItems() {
-        return stockRepository.findByQuantityLessThan(10).stream()
+        return stockRepository.findBelowMinimumLevel().stream()
                 .map(stockMapper::toDTO)
+                .map(this::withLedgerQuantity)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Overwrites a stock row. With {@code version} on the request the update applies
+     * only if the row is still at that version, so a client working from a stale read
+     * gets a conflict instead of silently undoing someone else's change.
+     */
     public StockDTO updateStock(Long id, StockDTO stockDTO) {
+        return withOptimisticRetry(id, stock -> {
+            if (stockDTO.getVersion() != null && !stockDTO.getVersion().equals(stock.getVersion())) {
+                contentionTracker.conflict(stock.getProductId());
+                throw new StockUpdateConflictException(id,
+                        "expected version " + stockDTO.getVersion() + " but found " + stock.getVersion());
+            }
+            StockSnapshot before = StockSnapshot.of(stock);
+
+            if (stockLedger == null) {
+                stock.setQuantity(stockDTO.getQuantity());
+            }
+            stock.setMinimumLevel(stockDTO.getMinimumLevel());
+            stock.setMaximumLevel(stockDTO.getMaximumLevel());
+            stock.setWarehouseLocation(stockDTO.getWarehouseLocation());
+
+            Stock updatedStock = stockRepository.saveAndFlush(stock);
+            StockSnapshot after = StockSnapshot.of(updatedStock);
+            if (stockLedger != null) {
+                // the quantity column trails the ledger, so route the new value through it
+                stockLedger.refresh(updatedStock);
+                StockSnapshot[] change = stockLedger.set(updatedStock.getId(), stockDTO.getQuantity());
+                before = before.withQuantity(change[0].getQuantity());
+                after = after.withQuantity(change[1].getQuantity());
+            }
+            eventPublisher.publishEvent(StockChangedEvent.updated(before, after));
+            StockDTO result = stockMapper.toDTO(updatedStock);
+            result.setQuantity(after.getQuantity());
+            return result;
+        });
+    }
+
+    /**
+     * Adds {@code delta} to a row's quantity as a version-checked read-modify-write.
+     * Unlike a PUT, the change is relative, so losing a race is safe to retry: the row
+     * is re-read and the delta applied to the new quantity.
+     */
+    public StockDTO adjustStock(Long id, int delta) {
+        if (stockLedger != null) {
+            // the ledger serialises changes per row itself, so there is nothing to retry
+            StockSnapshot[] change = stockLedger.adjust(id, delta);
+            eventPublisher.publishEvent(StockChangedEvent.updated(change[0], change[1]));
+            return stockMapper.toDTO(change[1]);
+        }
+        return withOptimisticRetry(id, stock -> {
+            if (stock.getQuantity() + delta < 0) {
+                throw new InsufficientStockException(stock.getProductId(), -delta);
+            }
+            StockSnapshot before = StockSnapshot.of(stock);
+            stock.setQuantity(stock.getQuantity() + delta);
+            Stock updatedStock = stockRepository.saveAndFlush(stock);
+            eventPublisher.publishEvent(StockChangedEvent.updated(before, StockSnapshot.of(updatedStock)));
+            return stockMapper.toDTO(updatedStock);
+        });
+    }
+
+    public List<StockContentionDTO> getContention(int limit) {
+        return contentionTracker.top(limit);
+    }
+
+    /**
+     * Runs {@code change} against a freshly read row in its own transaction, flushing
+     * inside it so a version conflict surfaces here rather than at commit. A conflict
+     * is retried after a random pause of up to {@code base * 2^attempt} ms (capped), so
+     * writers that collided do not collide again in lockstep. Inside a caller's
+     * transaction the stale row cannot be re-read, so the conflict is reported at once.
+     */
+    private <T> T withOptimisticRetry(Long stockId, Function<Stock, T> change) {
+        for (int attempt = 1; ; attempt++) {
+            Long[] productId = new Long[1];
+            try {
+                return transactionTemplate.execute(status -> {
+                    Stock stock = stockRepository.findById(stockId)
+                            .orElseThrow(() -> new RuntimeException("Stock not found with id: " + stockId));
+                    productId[0] = stock.getProductId();
+                    return change.apply(stock);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                contentionTracker.conflict(productId[0]);
+                if (attempt >= maxAttempts || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    contentionTracker.giveUp(productId[0]);
+                    throw new StockUpdateConflictException(stockId, "gave up after " + attempt + " attempts");
+                }
+                contentionTracker.retry(productId[0]);
+                pauseBeforeRetry(stockId, attempt);
+            }
+        }
+    }
+
+    private void pauseBeforeRetry(Long stockId, int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 16));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockUpdateConflictException(stockId, "interrupted while waiting to retry");
+        }
+    }
+
+    /**
+     * Atomically takes {@code quantity} units of a product out of stock with a single
+     * conditional UPDATE, so concurrent reservations can never oversell. No lock is taken
+     * before the update and none is held across a read-modify-write, but the row lock the
+     * UPDATE itself takes lasts until the caller's transaction (e.g. the sale) commits.
+     * Without a warehouse the fullest row that can cover the whole quantity is used.
+     * Returns the warehouse the units came from; a product with no stock row there is
+     * refused as out of stock.
+     */
+    @Transactional
+    public String reserveStock(Long productId, String warehouseLocation, int quantity, Long saleId) {
+        List<Stock> candidates = candidateRows(productId, warehouseLocation);
+        if (candidates.isEmpty()) {
+            throw new InsufficientStockException(productId, warehouseLocation, quantity);
+        }
+        String reservedFrom = reserveFromCandidates(candidates, quantity, saleId);
+        if (reservedFrom == null) {
+            throw new InsufficientStockException(productId, quantity);
+        }
+        return reservedFrom;
+    }
+
+    /**
+     * Same as {@link #reserveStock} but returns null when no row can cover the quantity,
+     * including when the product is not stocked at all, so a caller reserving for many sales in one transaction can reject a single sale
+     * without the shortage marking the whole transaction for rollback.
+     */
+    @Transactional
+    public String tryReserveStock(Long productId, String warehouseLocation, int quantity, Long saleId) {
+        return reserveFromCandidates(candidateRows(productId, warehouseLocation), quantity, saleId);
+    }
+
+    private String reserveFromCandidates(List<Stock> candidates, int quantity, Long saleId) {
+        for (Stock candidate : candidates) {
+            if (stockLedger != null) {
+                try {
+                    adjustLedger(candidate.getId(), -quantity, StockMovement.Reason.SALE_RESERVED, saleId);
+                    return candidate.getWarehouseLocation();
+                } catch (InsufficientStockException e) {
+                    continue;
+                }
+            }
+            if (stockRepository.reserve(candidate.getId(), quantity, LocalDateTime.now()) == 1) {
+                publishAdjustment(candidate.getId(), -quantity, StockMovement.Reason.SALE_RESERVED, saleId);
+                return candidate.getWarehouseLocation();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts units a sale reserved back into stock. If the row they came from has been
+     * deleted since, there is nothing to return them to and the release is skipped, so
+     * the sale can still be cancelled or deleted.
+     */
+    @Transactional
+    public void releaseStock(Long productId, String warehouseLocation, int quantity, Long saleId) {
+        List<Stock> rows = candidateRows(productId, warehouseLocation);
+        if (rows.isEmpty()) {
+            logger.warn("No stock row left for product {} in warehouse {}, dropping release of {} units for sale {}",
+                    productId, warehouseLocation, quantity, saleId);
+            return;
+        }
+        Stock target = rows.get(0);
+        if (stockLedger != null) {
+            adjustLedger(target.getId(), quantity, StockMovement.Reason.SALE_RELEASED, saleId);
+            return;
+        }
+        stockRepository.release(target.getId(), quantity, LocalDateTime.now());
+        publishAdjustment(target.getId(), quantity, StockMovement.Reason.SALE_RELEASED, saleId);
+    }
+
+    // empty when the product has no stock row, or none in the given warehouse
+    private List<Stock> candidateRows(Long productId, String warehouseLocation) {
+        List<Stock> candidates;
+        if (warehouseLocation != null) {
+            candidates = stockRepository.findByProductIdAndWarehouseLocation(productId, warehouseLocation)
+                    .map(List::of)
+                    .orElse(List.of());
+        } else {
+            candidates = stockRepository.findByProductIdOrderByQuantityDesc(productId);
+            if (stockLedger != null && candidates.size() > 1) {
+                // the quantity column trails the ledger, so rank by the ledger's view
+                candidates = candidates.stream()
+                        .sorted(Comparator.comparing((Stock stock) -> stockLedger.get(stock.getId()).getQuantity()).reversed())
+                        .collect(Collectors.toList());
+            }
+        }
+        return candidates;
+    }
+
+    private void publishAdjustment(Long stockId, int delta, StockMovement.Reason reason, Long saleId) {
+        Stock stock = stockRepository.findById(stockId)
+                .orElseThrow(() -> new RuntimeException("Stock not found with id: " + stockId));
+        // the conditional UPDATE bypassed the persistence context, which still holds the
+        // row as candidateRows loaded it; re-read it so the snapshot is the committed-to value
+        entityManager.refresh(stock);
+        StockSnapshot after = StockSnapshot.of(stock);
+        eventPublisher.publishEvent(StockChangedEvent.forSale(
+                after.withQuantity(after.getQuantity() - delta), after, reason, saleId));
+    }
+
+    @Transactional
+    public void deleteStock(Long id) {
         Stock stock = stockRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Stock not found with id: " + id));
+        stockRepository.delete(stock);
+        StockSnapshot deleted = StockSnapshot.of(stock);
+        if (stockLedger != null) {
+            deleted = deleted.withQuantity(stockLedger.peekQuantity(stock.getId()).orElse(deleted.getQuantity()));
+            stockLedger.evict(stock.getId());
+        }
+        eventPublisher.publishEvent(StockChangedEvent.deleted(deleted));
+    }
 
-        stock.setQuantity(stockDTO.getQuantity());
-        stock.setMinimumLevel(stockDTO.getMinimumLevel());
-        stock.setMaximumLevel(stockDTO.getMaximumLevel());
-        stock.setWarehouseLocation(stockDTO.getWarehouseLocation());
+    /**
+     * Applies many quantity deltas in one transaction. Each line is resolved to a
+     * (product, warehouse) row up front; a line without a warehouse must name a product
+     * stocked in exactly one place. The resolved lines are sent as batched conditional
+     * UPDATEs sorted by stock id, so concurrent bulk requests always lock rows in the
+     * same order and cannot deadlock each other. Lines that cannot be applied are
+     * skipped and reported; with {@code atomic} set, any such line rolls the whole
+     * request back.
+     */
+    @Transactional
+    public StockAdjustmentResultDTO bulkAdjust(StockAdjustmentRequestDTO request) {
+        long started = System.nanoTime();
+        List<StockAdjustmentLineDTO> lines = request.getLines();
+        StockAdjustmentLineResultDTO[] results = new StockAdjustmentLineResultDTO[lines.size()];
+        Stock[] targets = resolveTargets(lines, results);
+        List<Integer> order = IntStream.range(0, lines.size()).boxed()
+                .filter(i -> targets[i] != null)
+                .sorted(Comparator.comparing((Integer i) -> targets[i].getId()).thenComparing(i -> i))
+                .collect(Collectors.toList());
+
+        if (stockLedger != null) {
+            bulkAdjustLedger(lines, targets, order, results);
+        } else {
+            bulkAdjustDatabase(lines, targets, order, results);
+        }
+
+        int applied = 0;
+        for (StockAdjustmentLineResultDTO result : results) {
+            if (BULK_APPLIED.equals(result.getStatus())) {
+                applied++;
+            }
+        }
+        boolean rolledBack = request.isAtomic() && applied < results.length;
+        if (rolledBack) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (StockAdjustmentLineResultDTO result : results) {
+                if (BULK_APPLIED.equals(result.getStatus())) {
+                    result.setStatus(BULK_ROLLED_BACK);
+                    result.setQuantity(null);
+                }
+            }
+        }
 
-        Stock updatedStock = stockRepository.save(stock);
-        return stockMapper.toDTO(updatedStock);
+        StockAdjustmentResultDTO response = new StockAdjustmentResultDTO();
+        response.setApplied(rolledBack ? 0 : applied);
+        response.setFailed(results.length - applied);
+        response.setRolledBack(rolledBack);
+        response.setLines(List.of(results));
+        response.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        return response;
     }
 
-    public void deleteStock(Long id) {
-        if (!stockRepository.existsById(id)) {
-            throw new RuntimeException("Stock not found with id: " + id);
+    private Stock[] resolveTargets(List<StockAdjustmentLineDTO> lines, StockAdjustmentLineResultDTO[] results) {
+        List<Long> productIds = lines.stream().map(StockAdjustmentLineDTO::getProductId).distinct()
+                .collect(Collectors.toList());
+        Map<Long, List<Stock>> rowsByProduct = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += IN_CHUNK) {
+            stockRepository.findByProductIdIn(productIds.subList(from, Math.min(from + IN_CHUNK, productIds.size())))
+                    .forEach(stock -> rowsByProduct.computeIfAbsent(stock.getProductId(), id -> new ArrayList<>()).add(stock));
+        }
+
+        Stock[] targets = new Stock[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            StockAdjustmentLineDTO line = lines.get(i);
+            results[i] = new StockAdjustmentLineResultDTO(i, line.getProductId(), line.getDelta(), BULK_APPLIED);
+            List<Stock> rows = rowsByProduct.getOrDefault(line.getProductId(), List.of());
+            if (rows.isEmpty()) {
+                results[i].setStatus("NOT_FOUND");
+            } else if (line.getWarehouseLocation() != null) {
+                targets[i] = rows.stream()
+                        .filter(stock -> line.getWarehouseLocation().equals(stock.getWarehouseLocation()))
+                        .findFirst()
+                        .orElse(null);
+                if (targets[i] == null) {
+                    results[i].setStatus("UNKNOWN_WAREHOUSE");
+                }
+            } else if (rows.size() == 1) {
+                targets[i] = rows.get(0);
+            } else {
+                results[i].setStatus("AMBIGUOUS_WAREHOUSE");
+            }
+            if (targets[i] != null) {
+                results[i].setWarehouseLocation(targets[i].getWarehouseLocation());
+            }
+        }
+        return targets;
+    }
+
+    private void bulkAdjustDatabase(List<StockAdjustmentLineDTO> lines, Stock[] targets, List<Integer> order,
+                                    StockAdjustmentLineResultDTO[] results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(ADJUST_SQL, order, bulkBatchSize, (ps, i) -> {
+            ps.setInt(1, lines.get(i).getDelta());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, targets[i].getId());
+            ps.setInt(4, lines.get(i).getDelta());
+        });
+
+        int position = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                int i = order.get(position++);
+                if (count == 0) {
+                    results[i].setStatus("INSUFFICIENT_STOCK");
+                }
+            }
+        }
+
+        // the rows touched are locked by this transaction, so their current quantity is
+        // exactly the result of the applied lines; walk each row's lines backwards from
+        // it to recover the before/after of every individual line
+        List<Long> touched = order.stream()
+                .filter(i -> BULK_APPLIED.equals(results[i].getStatus()))
+                .map(i -> targets[i].getId())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Integer> running = new HashMap<>();
+        for (int from = 0; from < touched.size(); from += IN_CHUNK) {
+            List<Long> chunk = touched.subList(from, Math.min(from + IN_CHUNK, touched.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, quantity FROM stocks WHERE id IN (" + placeholders + ")",
+                    rs -> { running.put(rs.getLong(1), rs.getInt(2)); }, chunk.toArray());
+        }
+
+        List<StockChangedEvent> events = new ArrayList<>();
+        for (int k = order.size() - 1; k >= 0; k--) {
+            int i = order.get(k);
+            if (!BULK_APPLIED.equals(results[i].getStatus())) {
+                continue;
+            }
+            Long stockId = targets[i].getId();
+            int after = running.get(stockId);
+            int before = after - lines.get(i).getDelta();
+            running.put(stockId, before);
+            results[i].setQuantity(after);
+            StockSnapshot template = StockSnapshot.of(targets[i]);
+            events.add(StockChangedEvent.updated(template.withQuantity(before), template.withQuantity(after)));
+        }
+        for (int k = events.size() - 1; k >= 0; k--) {
+            eventPublisher.publishEvent(events.get(k));
+        }
+    }
+
+    private void bulkAdjustLedger(List<StockAdjustmentLineDTO> lines, Stock[] targets, List<Integer> order,
+                                  StockAdjustmentLineResultDTO[] results) {
+        for (int i : order) {
+            try {
+                StockSnapshot[] change = stockLedger.adjust(targets[i].getId(), lines.get(i).getDelta());
+                eventPublisher.publishEvent(StockChangedEvent.updated(change[0], change[1]));
+                results[i].setQuantity(change[1].getQuantity());
+            } catch (InsufficientStockException e) {
+                results[i].setStatus("INSUFFICIENT_STOCK");
+            }
+        }
+    }
+
+    private void adjustLedger(Long stockId, int delta, StockMovement.Reason reason, Long saleId) {
+        StockSnapshot[] change = stockLedger.adjust(stockId, delta);
+        eventPublisher.publishEvent(StockChangedEvent.forSale(change[0], change[1], reason, saleId));
+    }
+
+    private StockDTO withLedgerQuantity(StockDTO dto) {
+        if (stockLedger != null) {
+            stockLedger.peekQuantity(dto.getId()).ifPresent(dto::setQuantity);
         }
-        stockRepository.deleteById(id);
+        return dto;
     }
 }
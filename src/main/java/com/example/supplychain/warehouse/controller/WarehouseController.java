@@ -0,0 +1,86 @@
+package com.example.supplychain.warehouse.controller;
+
+import com.example.supplychain.warehouse.dto.NearestWarehouseDTO;
+import com.example.supplychain.warehouse.dto.WarehouseDTO;
+import com.example.supplychain.warehouse.dto.WarehouseZoneStockDTO;
+import com.example.supplychain.warehouse.service.WarehouseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/warehouses")
+@Tag(name = "Warehouses", description = "Warehouse registry and per-location stock endpoints")
+public class WarehouseController {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Create new warehouse", description = "Register a warehouse location code with its coordinates")
+    public ResponseEntity<WarehouseDTO> createWarehouse(@Valid @RequestBody WarehouseDTO warehouseDTO) {
+        WarehouseDTO createdWarehouse = warehouseService.createWarehouse(warehouseDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdWarehouse);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    @Operation(summary = "Get warehouse by ID", description = "Retrieve a warehouse by its ID")
+    public ResponseEntity<WarehouseDTO> getWarehouseById(@PathVariable Long id) {
+        WarehouseDTO warehouse = warehouseService.getWarehouseById(id);
+        return ResponseEntity.ok(warehouse);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    @Operation(summary = "Get all warehouses", description = "Retrieve all warehouses")
+    public ResponseEntity<List<WarehouseDTO>> getAllWarehouses() {
+        List<WarehouseDTO> warehouses = warehouseService.getAllWarehouses();
+        return ResponseEntity.ok(warehouses);
+    }
+
+    @GetMapping("/stock")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    @Operation(summary = "Get stock totals by location",
+            description = "Units and value for one location, a zone such as Warehouse-A-*, or every location when omitted")
+    public ResponseEntity<WarehouseZoneStockDTO> getStockTotals(@RequestParam(required = false) String location) {
+        WarehouseZoneStockDTO totals = warehouseService.getStockTotals(location);
+        return ResponseEntity.ok(totals);
+    }
+
+    @GetMapping("/nearest")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    @Operation(summary = "Find nearest warehouse with stock",
+            description = "Closest active warehouse holding at least the requested quantity of a product")
+    public ResponseEntity<NearestWarehouseDTO> findNearest(@RequestParam Long productId,
+                                                           @RequestParam(defaultValue = "1") int quantity,
+                                                           @RequestParam double latitude,
+                                                           @RequestParam double longitude) {
+        NearestWarehouseDTO nearest = warehouseService.findNearest(productId, quantity, latitude, longitude);
+        return ResponseEntity.ok(nearest);
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Update warehouse", description = "Update an existing warehouse")
+    public ResponseEntity<WarehouseDTO> updateWarehouse(@PathVariable Long id, @Valid @RequestBody WarehouseDTO warehouseDTO) {
+        WarehouseDTO updatedWarehouse = warehouseService.updateWarehouse(id, warehouseDTO);
+        return ResponseEntity.ok(updatedWarehouse);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Delete warehouse", description = "Delete a warehouse")
+    public ResponseEntity<Void> deleteWarehouse(@PathVariable Long id) {
+        warehouseService.deleteWarehouse(id);
+        return ResponseEntity.noContent().build();
+    }
+}
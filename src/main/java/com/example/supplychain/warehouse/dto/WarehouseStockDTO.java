@@ -0,0 +1,27 @@
+package com.example.supplychain.warehouse.dto;
+
+import java.math.BigDecimal;
+
+public class WarehouseStockDTO {
+
+    private String warehouseLocation;
+    private Long totalQuantity;
+    private BigDecimal totalValue;
+
+    public WarehouseStockDTO() {}
+
+    public WarehouseStockDTO(String warehouseLocation, Long totalQuantity, BigDecimal totalValue) {
+        this.warehouseLocation = warehouseLocation;
+        this.totalQuantity = totalQuantity;
+        this.totalValue = totalValue;
+    }
+
+    public String getWarehouseLocation() { return warehouseLocation; }
+    public void setWarehouseLocation(String warehouseLocation) { this.warehouseLocation = warehouseLocation; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+}
@@ -0,0 +1,24 @@
+package com.example.supplychain.warehouse.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class WarehouseZoneStockDTO {
+
+    private String location;
+    private Long totalQuantity;
+    private BigDecimal totalValue;
+    private List<WarehouseStockDTO> warehouses;
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+
+    public List<WarehouseStockDTO> getWarehouses() { return warehouses; }
+    public void setWarehouses(List<WarehouseStockDTO> warehouses) { this.warehouses = warehouses; }
+}
@@ -0,0 +1,22 @@
+package com.example.supplychain.warehouse.mapper;
+
+import com.example.supplychain.warehouse.dto.WarehouseDTO;
+import com.example.supplychain.warehouse.entity.Warehouse;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WarehouseMapper {
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    public WarehouseDTO toDTO(Warehouse entity) {
+        return modelMapper.map(entity, WarehouseDTO.class);
+    }
+
+    public Warehouse toEntity(WarehouseDTO dto) {
+        return modelMapper.map(dto, Warehouse.class);
+    }
+}
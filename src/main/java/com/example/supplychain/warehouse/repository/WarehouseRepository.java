@@ -0,0 +1,15 @@
+package com.example.supplychain.warehouse.repository;
+
+import com.example.supplychain.warehouse.entity.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+    Optional<Warehouse> findByCode(String code);
+    List<Warehouse> findByCodeInAndIsActive(Collection<String> codes, Boolean isActive);
+}
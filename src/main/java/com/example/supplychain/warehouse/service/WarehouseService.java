@@ -0,0 +1,123 @@
+package com.example.supplychain.warehouse.service;
+
+import com.example.supplychain.stock.dto.StockDTO;
+import com.example.supplychain.stock.service.StockService;
+import com.example.supplychain.warehouse.dto.NearestWarehouseDTO;
+import com.example.supplychain.warehouse.dto.WarehouseDTO;
+import com.example.supplychain.warehouse.dto.WarehouseZoneStockDTO;
+import com.example.supplychain.warehouse.entity.Warehouse;
+import com.example.supplychain.warehouse.mapper.WarehouseMapper;
+import com.example.supplychain.warehouse.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class WarehouseService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private WarehouseMapper warehouseMapper;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private WarehouseStockAggregator warehouseStockAggregator;
+
+    public WarehouseDTO createWarehouse(WarehouseDTO warehouseDTO) {
+        Warehouse warehouse = warehouseMapper.toEntity(warehouseDTO);
+        Warehouse savedWarehouse = warehouseRepository.save(warehouse);
+        return warehouseMapper.toDTO(savedWarehouse);
+    }
+
+    public WarehouseDTO getWarehouseById(Long id) {
+        Warehouse warehouse = warehouseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Warehouse not found with id: " + id));
+        return warehouseMapper.toDTO(warehouse);
+    }
+
+    public List<WarehouseDTO> getAllWarehouses() {
+        return warehouseRepository.findAll().stream()
+                .map(warehouseMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public WarehouseDTO updateWarehouse(Long id, WarehouseDTO warehouseDTO) {
+        Warehouse warehouse = warehouseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Warehouse not found with id: " + id));
+
+        warehouse.setName(warehouseDTO.getName());
+        warehouse.setLatitude(warehouseDTO.getLatitude());
+        warehouse.setLongitude(warehouseDTO.getLongitude());
+        warehouse.setIsActive(warehouseDTO.getIsActive());
+
+        Warehouse updatedWarehouse = warehouseRepository.save(warehouse);
+        return warehouseMapper.toDTO(updatedWarehouse);
+    }
+
+    public void deleteWarehouse(Long id) {
+        if (!warehouseRepository.existsById(id)) {
+            throw new RuntimeException("Warehouse not found with id: " + id);
+        }
+        warehouseRepository.deleteById(id);
+    }
+
+    public WarehouseZoneStockDTO getStockTotals(String location) {
+        return warehouseStockAggregator.getTotals(location);
+    }
+
+    /**
+     * Closest active warehouse, by great-circle distance, whose stock of the product
+     * covers {@code quantity}. Only the product's own stock rows are read (one per
+     * warehouse, through the product id index), so the cost does not grow with the
+     * size of the stocks table.
+     */
+    public NearestWarehouseDTO findNearest(Long productId, int quantity, double latitude, double longitude) {
+        List<StockDTO> candidates = stockService.getStocksByProductId(productId, true).stream()
+                .filter(stock -> stock.getQuantity() >= quantity && stock.getWarehouseLocation() != null)
+                .collect(Collectors.toList());
+        Map<String, Warehouse> warehouses = warehouseRepository.findByCodeInAndIsActive(
+                        candidates.stream().map(StockDTO::getWarehouseLocation).collect(Collectors.toList()), true)
+                .stream()
+                .filter(w -> w.getLatitude() != null && w.getLongitude() != null)
+                .collect(Collectors.toMap(Warehouse::getCode, Function.identity()));
+
+        NearestWarehouseDTO nearest = null;
+        for (StockDTO stock : candidates) {
+            Warehouse warehouse = warehouses.get(stock.getWarehouseLocation());
+            if (warehouse == null) {
+                continue;
+            }
+            double distance = distanceKm(latitude, longitude, warehouse.getLatitude(), warehouse.getLongitude());
+            if (nearest == null || distance < nearest.getDistanceKm()) {
+                nearest = new NearestWarehouseDTO();
+                nearest.setStockId(stock.getId());
+                nearest.setWarehouseLocation(warehouse.getCode());
+                nearest.setWarehouseName(warehouse.getName());
+                nearest.setAvailableQuantity(stock.getQuantity());
+                nearest.setDistanceKm(distance);
+            }
+        }
+        if (nearest == null) {
+            throw new RuntimeException("No warehouse has " + quantity + " units of product: " + productId);
+        }
+        return nearest;
+    }
+
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
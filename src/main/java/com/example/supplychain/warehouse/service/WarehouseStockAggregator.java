@@ -0,0 +1,188 @@
+package com.example.supplychain.warehouse.service;
+
+import com.example.supplychain.product.entity.Product;
+import com.example.supplychain.product.repository.ProductRepository;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.example.supplychain.stock.event.StockSnapshot;
+import com.example.supplychain.stock.repository.InventoryValuation;
+import com.example.supplychain.stock.repository.StockRepository;
+import com.example.supplychain.warehouse.dto.WarehouseStockDTO;
+import com.example.supplychain.warehouse.dto.WarehouseZoneStockDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Units and value held per warehouse location, kept in a sorted map and moved by
+ * every committed stock change, so per-warehouse and per-zone totals never scan
+ * {@code stocks}. A zone is a location prefix ("Warehouse-A-*"), answered from the
+ * matching key range. The map is rebuilt from the database on startup and then on
+ * an interval, which also picks up unit price edits the events do not carry.
+ */
+@Component
+public class WarehouseStockAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseStockAggregator.class);
+
+    static final String UNASSIGNED = "(unassigned)";
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final Map<Long, BigDecimal> unitPrices = new ConcurrentHashMap<>();
+    // guarded by this
+    private NavigableMap<String, Totals> totals = new TreeMap<>();
+    private List<Delta> appliedDuringRebuild;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${warehouse.aggregate.reconcile-interval-ms:600000}",
+            initialDelayString = "${warehouse.aggregate.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the map with a fresh grouped query. Changes that commit while the query
+     * runs are replayed on top of its result; one that committed just before the query
+     * started can be counted twice until the next round.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            appliedDuringRebuild = new ArrayList<>();
+        }
+        NavigableMap<String, Totals> rebuilt = new TreeMap<>();
+        try {
+            unitPrices.clear();
+            for (InventoryValuation valuation : stockRepository.valuationByWarehouse()) {
+                rebuilt.put(key(valuation.getName()), new Totals(
+                        valuation.getTotalQuantity() != null ? valuation.getTotalQuantity() : 0L,
+                        valuation.getTotalValue() != null ? valuation.getTotalValue() : BigDecimal.ZERO));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                appliedDuringRebuild = null;
+            }
+            logger.warn("Warehouse stock aggregate rebuild failed, keeping the current totals", e);
+            return;
+        }
+        synchronized (this) {
+            for (Delta delta : appliedDuringRebuild) {
+                add(rebuilt, delta);
+            }
+            appliedDuringRebuild = null;
+            totals = rebuilt;
+        }
+        ready = true;
+        logger.debug("Rebuilt warehouse stock aggregate for {} locations", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        StockSnapshot before = event.getBefore();
+        StockSnapshot after = event.getAfter();
+        if (before != null && after != null && before.getQuantity() == after.getQuantity()
+                && key(before.getWarehouseLocation()).equals(key(after.getWarehouseLocation()))) {
+            return;
+        }
+        Delta removed = before != null ? toDelta(before, -1) : null;
+        Delta added = after != null ? toDelta(after, 1) : null;
+        synchronized (this) {
+            for (Delta delta : new Delta[] {removed, added}) {
+                if (delta == null) {
+                    continue;
+                }
+                add(totals, delta);
+                if (appliedDuringRebuild != null) {
+                    appliedDuringRebuild.add(delta);
+                }
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Totals for an exact location, for every location starting with a prefix when
+     * the pattern ends in {@code *}, or for all locations when it is null.
+     */
+    public WarehouseZoneStockDTO getTotals(String location) {
+        List<WarehouseStockDTO> warehouses = new ArrayList<>();
+        synchronized (this) {
+            Map<String, Totals> range;
+            if (location == null || location.isBlank() || location.equals("*")) {
+                range = totals;
+            } else if (location.endsWith("*")) {
+                String prefix = location.substring(0, location.length() - 1);
+                range = totals.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            } else {
+                Totals exact = totals.get(location);
+                range = exact != null ? Map.of(location, exact) : Map.of();
+            }
+            range.forEach((name, t) -> warehouses.add(new WarehouseStockDTO(name, t.quantity, t.value)));
+        }
+
+        WarehouseZoneStockDTO zone = new WarehouseZoneStockDTO();
+        zone.setLocation(location);
+        zone.setWarehouses(warehouses);
+        zone.setTotalQuantity(warehouses.stream().mapToLong(WarehouseStockDTO::getTotalQuantity).sum());
+        zone.setTotalValue(warehouses.stream().map(WarehouseStockDTO::getTotalValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return zone;
+    }
+
+    private Delta toDelta(StockSnapshot stock, int sign) {
+        long quantity = (long) sign * stock.getQuantity();
+        BigDecimal price = unitPrices.computeIfAbsent(stock.getProductId(), id -> productRepository.findById(id)
+                .map(Product::getUnitPrice)
+                .orElse(BigDecimal.ZERO));
+        return new Delta(key(stock.getWarehouseLocation()), quantity, price.multiply(BigDecimal.valueOf(quantity)));
+    }
+
+    private static void add(NavigableMap<String, Totals> target, Delta delta) {
+        Totals t = target.computeIfAbsent(delta.location(), l -> new Totals(0L, BigDecimal.ZERO));
+        t.quantity += delta.quantity();
+        t.value = t.value.add(delta.value());
+        if (t.quantity == 0 && t.value.signum() == 0) {
+            target.remove(delta.location());
+        }
+    }
+
+    private static String key(String location) {
+        return location != null ? location : UNASSIGNED;
+    }
+
+    private record Delta(String location, long quantity, BigDecimal value) {}
+
+    private static class Totals {
+        long quantity;
+        BigDecimal value;
+
+        Totals(long quantity, BigDecimal value) {
+            this.quantity = quantity;
+            this.value = value;
+        }
+    }
+}
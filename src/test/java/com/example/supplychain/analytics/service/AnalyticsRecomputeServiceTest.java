@@ -0,0 +1,116 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.RecomputeStatusDTO;
+import com.example.supplychain.analytics.dto.SalesAnalyticsDTO;
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.repository.SaleAggregate;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.service.SaleService;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "analytics.recompute.partition-size=5")
+@ActiveProfiles("h2")
+class AnalyticsRecomputeServiceTest {
+
+    @Autowired
+    private AnalyticsRecomputeService recomputeService;
+
+    @Autowired
+    private SalesCounterStore salesCounterStore;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Test
+    void salesWrittenDuringRecomputeAreKeptInTheCounters() throws Exception {
+        Long productId = saveStock(stockRepository, 10_000).getProductId();
+        for (int i = 0; i < 20; i++) {
+            saleService.createSale(sale(productId));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger written = new AtomicInteger();
+        // inserts, status changes and deletes, so every kind of live change races the scan
+        Thread writer = Thread.ofVirtual().start(() -> {
+            SaleDTO previous = null;
+            for (int i = 0; !stop.get(); i++) {
+                SaleDTO created = saleService.createSale(sale(productId));
+                if (i % 3 == 1) {
+                    created.setStatus("CONFIRMED");
+                    saleService.updateSale(created.getId(), created);
+                } else if (i % 3 == 2) {
+                    saleService.deleteSale(previous.getId());
+                }
+                previous = created;
+                written.incrementAndGet();
+            }
+        });
+        try {
+            while (written.get() < 300) {
+                recomputeService.start();
+                awaitFinished();
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+
+        SalesAnalyticsDTO counted = salesCounterStore.getTotals();
+        List<SaleAggregate.ByStatus> stored = saleRepository.aggregateByStatus();
+        assertThat(counted.getTotalOrders())
+                .isEqualTo(stored.stream().mapToLong(SaleAggregate.ByStatus::getOrderCount).sum());
+        assertThat(counted.getTotalQuantitySold())
+                .isEqualTo(stored.stream().mapToLong(SaleAggregate.ByStatus::getTotalQuantity).sum());
+    }
+
+    @Test
+    void statusOfAFinishedRunIsConsistent() throws Exception {
+        recomputeService.start();
+        RecomputeStatusDTO status = awaitFinished();
+
+        assertThat(status.getState()).isEqualTo("SUCCEEDED");
+        assertThat(status.getFinishedAt()).isNotNull();
+        assertThat(status.getCompletedPartitions()).isEqualTo(status.getTotalPartitions());
+    }
+
+    private RecomputeStatusDTO awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 600; i++) {
+            RecomputeStatusDTO status = recomputeService.getStatus();
+            if (!"RUNNING".equals(status.getState())) {
+                assertThat(status.getError()).isNull();
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Recompute did not finish");
+    }
+
+    private static SaleDTO sale(Long productId) {
+        SaleDTO sale = new SaleDTO();
+        sale.setProductId(productId);
+        sale.setQuantity(1);
+        sale.setUnitPrice(BigDecimal.TEN);
+        sale.setTotalAmount(BigDecimal.TEN);
+        sale.setStatus("PENDING");
+        sale.setWarehouseLocation("WH-A");
+        return sale;
+    }
+}
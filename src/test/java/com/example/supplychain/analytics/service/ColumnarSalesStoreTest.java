@@ -0,0 +1,112 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.ProductSalesDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ColumnarSalesStoreTest {
+
+    private final ColumnarSalesStore store = new ColumnarSalesStore();
+
+    @Test
+    void groupsLiveRowsByProduct() {
+        store.onSaleChanged(SaleChangedEvent.created(snapshot(1, 10L, 2, Sale.SaleStatus.PENDING)));
+        store.onSaleChanged(SaleChangedEvent.created(snapshot(2, 10L, 3, Sale.SaleStatus.CONFIRMED)));
+        store.onSaleChanged(SaleChangedEvent.created(snapshot(3, 20L, 1, Sale.SaleStatus.PENDING)));
+        store.onSaleChanged(SaleChangedEvent.deleted(snapshot(3, 20L, 1, Sale.SaleStatus.PENDING)));
+
+        List<ProductSalesDTO> groups = store.groupByProduct(null, null, null);
+
+        assertThat(groups).singleElement().satisfies(group -> {
+            assertThat(group.getProductId()).isEqualTo(10L);
+            assertThat(group.getOrderCount()).isEqualTo(2L);
+            assertThat(group.getTotalQuantity()).isEqualTo(5L);
+        });
+        assertThat(store.groupByProduct(Sale.SaleStatus.CONFIRMED, null, null))
+                .singleElement().satisfies(group -> assertThat(group.getOrderCount()).isEqualTo(1L));
+    }
+
+    @Test
+    void compactsTombstonesAndKeepsServingInserts() {
+        int rows = 4000;
+        for (int i = 1; i <= rows; i++) {
+            store.onSaleChanged(SaleChangedEvent.created(snapshot(i, i % 2 == 0 ? 10L : 20L, 1, Sale.SaleStatus.PENDING)));
+        }
+        // every odd id goes, which crosses the compaction threshold several times over
+        for (int i = 1; i <= rows; i += 2) {
+            store.onSaleChanged(SaleChangedEvent.deleted(snapshot(i, 20L, 1, Sale.SaleStatus.PENDING)));
+        }
+        store.onSaleChanged(SaleChangedEvent.created(snapshot(rows + 1, 20L, 7, Sale.SaleStatus.PENDING)));
+        store.onSaleChanged(SaleChangedEvent.updated(
+                snapshot(2, 10L, 1, Sale.SaleStatus.PENDING), snapshot(2, 10L, 1, Sale.SaleStatus.CANCELLED)));
+
+        assertThat(store.size()).isEqualTo(rows / 2 + 1);
+        assertThat(store.groupByProduct(Sale.SaleStatus.PENDING, null, null))
+                .extracting(ProductSalesDTO::getProductId, ProductSalesDTO::getOrderCount, ProductSalesDTO::getTotalQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple(10L, (long) rows / 2 - 1, (long) rows / 2 - 1),
+                        tuple(20L, 1L, 7L));
+    }
+
+    @Test
+    void changesCommittedWhileLoadingSurviveTheSwap() {
+        SaleRepository saleRepository = mock(SaleRepository.class);
+        // the stream has already passed sale 1 when it is deleted and sale 3 is created
+        when(saleRepository.streamAllRows()).thenAnswer(invocation -> Stream.of(row(1), row(2)).peek(row -> {
+            if (row.getId() == 2) {
+                store.onSaleChanged(SaleChangedEvent.deleted(snapshot(1, 10L, 1, Sale.SaleStatus.PENDING)));
+                store.onSaleChanged(SaleChangedEvent.created(snapshot(3, 10L, 5, Sale.SaleStatus.PENDING)));
+            }
+        }));
+        ReflectionTestUtils.setField(store, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(store, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        store.load();
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.groupByProduct(null, null, null))
+                .singleElement().satisfies(group -> {
+                    assertThat(group.getOrderCount()).isEqualTo(2L);
+                    assertThat(group.getTotalQuantity()).isEqualTo(6L);
+                });
+    }
+
+    private static SaleRow row(long id) {
+        SaleRow row = mock(SaleRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getProductId()).thenReturn(10L);
+        when(row.getQuantity()).thenReturn(1);
+        when(row.getTotalAmount()).thenReturn(BigDecimal.TEN);
+        when(row.getStatus()).thenReturn(Sale.SaleStatus.PENDING);
+        when(row.getCreatedAt()).thenReturn(LocalDateTime.now());
+        return row;
+    }
+
+    private static SaleSnapshot snapshot(long id, Long productId, int quantity, Sale.SaleStatus status) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setProductId(productId);
+        sale.setQuantity(quantity);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus(status);
+        sale.setCreatedAt(LocalDateTime.now());
+        return SaleSnapshot.of(sale);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.SalesCountersDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalesCounterStoreTest {
+
+    private final SalesCounterStore store = new SalesCounterStore();
+    private final SaleRepository saleRepository = mock(SaleRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(store, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void saleWritesAreAppliedWhileTheRebuildScanRuns() {
+        // a sale committed on another thread while the scan runs, which the scan does not see
+        when(saleRepository.streamAllRows()).thenAnswer(invocation -> {
+            onOtherThread(SaleChangedEvent.created(snapshot(3, 20L, 5, Sale.SaleStatus.CONFIRMED)));
+            return Stream.of(row(1, 10L, 2, Sale.SaleStatus.PENDING), row(2, 10L, 3, Sale.SaleStatus.CONFIRMED));
+        });
+
+        store.rebuild();
+
+        SalesCountersDTO counters = store.getCounters();
+        assertThat(store.isReady()).isTrue();
+        assertThat(counters.getTotals().getTotalOrders()).isEqualTo(3L);
+        assertThat(counters.getTotals().getTotalQuantitySold()).isEqualTo(10L);
+        assertThat(counters.getByStatus().get("CONFIRMED").getTotalOrders()).isEqualTo(2L);
+        assertThat(counters.getByProduct().get(10L).getTotalQuantitySold()).isEqualTo(5L);
+        assertThat(counters.getByProduct().get(20L).getTotalQuantitySold()).isEqualTo(5L);
+    }
+
+    @Test
+    void changesTheScanAlreadyReadAreNotCountedTwice() {
+        // sale 2 was created, and sale 1 confirmed, before the scan's snapshot, but
+        // their listeners only run once the scan is under way
+        when(saleRepository.streamAllRows()).thenAnswer(invocation -> {
+            onOtherThread(SaleChangedEvent.created(snapshot(2, 10L, 3, Sale.SaleStatus.PENDING)));
+            onOtherThread(SaleChangedEvent.updated(
+                    snapshot(1, 10L, 2, Sale.SaleStatus.PENDING), snapshot(1, 10L, 2, Sale.SaleStatus.CONFIRMED)));
+            return Stream.of(row(1, 10L, 2, Sale.SaleStatus.CONFIRMED), row(2, 10L, 3, Sale.SaleStatus.PENDING));
+        });
+
+        store.rebuild();
+
+        SalesCountersDTO counters = store.getCounters();
+        assertThat(counters.getTotals().getTotalOrders()).isEqualTo(2L);
+        assertThat(counters.getTotals().getTotalQuantitySold()).isEqualTo(5L);
+        assertThat(counters.getByStatus().get("CONFIRMED").getTotalOrders()).isEqualTo(1L);
+        assertThat(counters.getByStatus().get("PENDING").getTotalOrders()).isEqualTo(1L);
+    }
+
+    @Test
+    void onlyTheChangesAfterTheScannedStateAreReplayed() {
+        // the scan read sale 1 as CONFIRMED: the confirm is already counted, the cancel
+        // and the delete of sale 2 are not
+        when(saleRepository.streamAllRows()).thenAnswer(invocation -> {
+            onOtherThread(SaleChangedEvent.updated(
+                    snapshot(1, 10L, 2, Sale.SaleStatus.PENDING), snapshot(1, 10L, 2, Sale.SaleStatus.CONFIRMED)));
+            return Stream.of(row(1, 10L, 2, Sale.SaleStatus.CONFIRMED), row(2, 20L, 4, Sale.SaleStatus.PENDING))
+                    .peek(row -> {
+                        if (row.getId() == 2) {
+                            onOtherThread(SaleChangedEvent.updated(snapshot(1, 10L, 2, Sale.SaleStatus.CONFIRMED),
+                                    snapshot(1, 10L, 2, Sale.SaleStatus.CANCELLED)));
+                            onOtherThread(SaleChangedEvent.deleted(snapshot(2, 20L, 4, Sale.SaleStatus.PENDING)));
+                        }
+                    });
+        });
+
+        store.rebuild();
+
+        SalesCountersDTO counters = store.getCounters();
+        assertThat(counters.getTotals().getTotalOrders()).isEqualTo(1L);
+        assertThat(counters.getByStatus().get("CANCELLED").getTotalOrders()).isEqualTo(1L);
+        assertThat(counters.getByStatus().get("CONFIRMED").getTotalOrders()).isZero();
+        assertThat(counters.getByProduct().get(20L).getTotalOrders()).isZero();
+    }
+
+    private void onOtherThread(SaleChangedEvent event) {
+        try {
+            CompletableFuture.runAsync(() -> store.onSaleChanged(event)).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SaleRow row(long id, Long productId, int quantity, Sale.SaleStatus status) {
+        SaleRow row = mock(SaleRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getProductId()).thenReturn(productId);
+        when(row.getQuantity()).thenReturn(quantity);
+        // scale 2 as read from the column, unlike the snapshots
+        when(row.getTotalAmount()).thenReturn(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)).setScale(2));
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCreatedAt()).thenReturn(LocalDateTime.now());
+        return row;
+    }
+
+    private static SaleSnapshot snapshot(long id, Long productId, int quantity, Sale.SaleStatus status) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setProductId(productId);
+        sale.setQuantity(quantity);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus(status);
+        sale.setCreatedAt(LocalDateTime.now());
+        return SaleSnapshot.of(sale);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.OrderDistributionDTO;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalesDistributionServiceTest {
+
+    private final SalesDistributionService service = new SalesDistributionService();
+
+    @Test
+    void insertsArrivingDuringTheLoadScanAreCountedOnce() {
+        SaleRepository saleRepository = mock(SaleRepository.class);
+        // sale 2 committed before the scan's snapshot, so the scan reads it, but its
+        // listener only runs while the scan is under way; sale 3 commits after the snapshot
+        when(saleRepository.streamRows(any(), any())).thenAnswer(invocation -> {
+            onOtherThread(SaleChangedEvent.created(snapshot(2, 4)));
+            onOtherThread(SaleChangedEvent.created(snapshot(3, 8)));
+            return Stream.of(row(1, 1), row(2, 4));
+        });
+        ReflectionTestUtils.setField(service, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "compression", 100.0);
+        ReflectionTestUtils.setField(service, "retentionDays", 90);
+
+        service.load();
+        service.onSaleChanged(SaleChangedEvent.created(snapshot(4, 16)));
+
+        OrderDistributionDTO distribution = service.getDistribution(null, LocalDate.now(), LocalDate.now());
+        assertThat(distribution.getOrderCount()).isEqualTo(4L);
+        assertThat(distribution.getQuantity().getMax()).isEqualTo(16.0);
+    }
+
+    private void onOtherThread(SaleChangedEvent event) {
+        try {
+            CompletableFuture.runAsync(() -> service.onSaleChanged(event)).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SaleRow row(long id, int quantity) {
+        SaleRow row = mock(SaleRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getProductId()).thenReturn(10L);
+        when(row.getQuantity()).thenReturn(quantity);
+        when(row.getTotalAmount()).thenReturn(BigDecimal.valueOf(quantity));
+        when(row.getStatus()).thenReturn(Sale.SaleStatus.PENDING);
+        when(row.getCreatedAt()).thenReturn(LocalDateTime.now());
+        return row;
+    }
+
+    private static SaleSnapshot snapshot(long id, int quantity) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setProductId(10L);
+        sale.setQuantity(quantity);
+        sale.setTotalAmount(BigDecimal.valueOf(quantity));
+        sale.setStatus(Sale.SaleStatus.PENDING);
+        sale.setCreatedAt(LocalDateTime.now());
+        return SaleSnapshot.of(sale);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.entity.SalesRollup;
+import com.example.supplychain.analytics.entity.SalesRollup.Granularity;
+import com.example.supplychain.analytics.repository.SalesRollupRepository;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import com.example.supplychain.sale.repository.SaleRepository;
+import com.example.supplychain.sale.repository.SaleRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SalesRollupServiceTest {
+
+    private static final LocalDateTime FIRST_MONTH = Granularity.MONTH.truncate(LocalDateTime.now()).minusMonths(3);
+    private static final LocalDateTime SECOND_MONTH = FIRST_MONTH.plusMonths(1);
+
+    private final SalesRollupService service = new SalesRollupService();
+    private final SalesRollupRepository rollupRepository = mock(SalesRollupRepository.class);
+    private final SaleRepository saleRepository = mock(SaleRepository.class);
+    private final List<SalesRollup> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(rollupRepository.save(any())).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        ReflectionTestUtils.setField(service, "salesRollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(service, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreCountedOnce() {
+        LocalDateTime firstAt = FIRST_MONTH.plusDays(3);
+        LocalDateTime secondAt = SECOND_MONTH.plusDays(3);
+        // each scan is a snapshot taken as it starts, so what commits mid-scan is not in it
+        when(saleRepository.streamRows(FIRST_MONTH, SECOND_MONTH)).thenAnswer(invocation ->
+                Stream.of(row(1, firstAt, 2)).peek(row -> {
+                    // already counted by the scan, then edited; a new sale in the same month
+                    service.onSaleChanged(SaleChangedEvent.updated(
+                            snapshot(1, firstAt, 2), snapshot(1, firstAt, 3)));
+                    service.onSaleChanged(SaleChangedEvent.created(snapshot(2, firstAt, 4)));
+                    // committed before the second month is scanned, so that scan sees it
+                    service.onSaleChanged(SaleChangedEvent.created(snapshot(3, secondAt, 5)));
+                }));
+        when(saleRepository.streamRows(SECOND_MONTH, SECOND_MONTH.plusMonths(1)))
+                .thenAnswer(invocation -> Stream.of(row(3, secondAt, 5)));
+
+        service.rebuild(FIRST_MONTH, SECOND_MONTH.plusDays(1));
+        service.flush();
+
+        assertThat(saved).filteredOn(r -> r.getGranularity() == Granularity.MONTH)
+                .extracting(SalesRollup::getBucketStart, SalesRollup::getOrderCount, SalesRollup::getTotalQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple(FIRST_MONTH, 2L, 7L),
+                        tuple(SECOND_MONTH, 1L, 5L));
+        verify(rollupRepository, never()).addDelta(any(), any(), any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void changesAfterTheRebuildAreFlushedOnTop() {
+        LocalDateTime at = FIRST_MONTH.plusDays(3);
+        when(saleRepository.streamRows(FIRST_MONTH, SECOND_MONTH)).thenAnswer(invocation -> Stream.of(row(1, at, 2)));
+
+        service.rebuild(FIRST_MONTH, FIRST_MONTH.plusDays(1));
+        service.onSaleChanged(SaleChangedEvent.created(snapshot(2, at, 4)));
+        service.flush();
+
+        verify(rollupRepository).addDelta(Granularity.MONTH, FIRST_MONTH, 10L, Sale.SaleStatus.PENDING,
+                1L, 4L, BigDecimal.valueOf(40));
+    }
+
+    @Test
+    void changesTheScanAlreadyReadAreNotAddedAgain() {
+        LocalDateTime at = FIRST_MONTH.plusDays(3);
+        // committed before the scan's snapshot, so the scan reads them, but their
+        // listeners only run once the month is being rebuilt
+        when(saleRepository.streamRows(FIRST_MONTH, SECOND_MONTH)).thenAnswer(invocation -> {
+            service.onSaleChanged(SaleChangedEvent.created(snapshot(2, at, 4)));
+            service.onSaleChanged(SaleChangedEvent.updated(snapshot(1, at, 2), snapshot(1, at, 3)));
+            return Stream.of(row(1, at, 3), row(2, at, 4));
+        });
+
+        service.rebuild(FIRST_MONTH, FIRST_MONTH.plusDays(1));
+        service.flush();
+
+        assertThat(saved).filteredOn(r -> r.getGranularity() == Granularity.MONTH)
+                .extracting(SalesRollup::getBucketStart, SalesRollup::getOrderCount, SalesRollup::getTotalQuantity)
+                .containsExactly(tuple(FIRST_MONTH, 2L, 7L));
+        verify(rollupRepository, never()).addDelta(any(), any(), any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void flushesKeepRunningWhileAMonthIsScanned() {
+        LocalDateTime at = FIRST_MONTH.plusDays(3);
+        LocalDateTime outside = SECOND_MONTH.plusDays(3);
+        when(saleRepository.streamRows(FIRST_MONTH, SECOND_MONTH)).thenAnswer(invocation -> {
+            service.onSaleChanged(SaleChangedEvent.created(snapshot(5, outside, 1)));
+            CompletableFuture.runAsync(service::flush).get(5, TimeUnit.SECONDS);
+            return Stream.of(row(1, at, 2));
+        });
+
+        service.rebuild(FIRST_MONTH, FIRST_MONTH.plusDays(1));
+
+        verify(rollupRepository).addDelta(Granularity.MONTH, SECOND_MONTH, 10L, Sale.SaleStatus.PENDING,
+                1L, 1L, BigDecimal.TEN);
+    }
+
+    private static SaleRow row(long id, LocalDateTime createdAt, int quantity) {
+        SaleRow row = mock(SaleRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getProductId()).thenReturn(10L);
+        when(row.getQuantity()).thenReturn(quantity);
+        when(row.getTotalAmount()).thenReturn(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        when(row.getStatus()).thenReturn(Sale.SaleStatus.PENDING);
+        when(row.getCreatedAt()).thenReturn(createdAt);
+        return row;
+    }
+
+    private static SaleSnapshot snapshot(long id, LocalDateTime createdAt, int quantity) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setProductId(10L);
+        sale.setQuantity(quantity);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus(Sale.SaleStatus.PENDING);
+        sale.setCreatedAt(createdAt);
+        return SaleSnapshot.of(sale);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.supplychain.analytics.service;
+
+import com.example.supplychain.analytics.dto.TopProductDTO;
+import com.example.supplychain.analytics.dto.TopProductsDTO;
+import com.example.supplychain.analytics.entity.SalesSketch;
+import com.example.supplychain.analytics.repository.SalesSketchRepository;
+import com.example.supplychain.analytics.sketch.HyperLogLog;
+import com.example.supplychain.analytics.sketch.SpaceSaving;
+import com.example.supplychain.sale.entity.Sale;
+import com.example.supplychain.sale.event.SaleChangedEvent;
+import com.example.supplychain.sale.event.SaleSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SalesSketchServiceTest {
+
+    private final SalesSketchService service = new SalesSketchService();
+    private final SalesSketchRepository salesSketchRepository = mock(SalesSketchRepository.class);
+
+    @Test
+    void loadMergesPersistedSketchesIntoSalesRecordedSinceStartup() {
+        ReflectionTestUtils.setField(service, "salesSketchRepository", salesSketchRepository);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "topKCapacity", 100);
+        ReflectionTestUtils.setField(service, "hllPrecision", 10);
+        YearMonth month = YearMonth.now();
+        LocalDate windowStart = month.atDay(1);
+
+        SpaceSaving quantity = new SpaceSaving(100);
+        quantity.add(10L, 5);
+        SpaceSaving revenue = new SpaceSaving(100);
+        revenue.add(10L, 5_000);
+        HyperLogLog customers = new HyperLogLog(10);
+        customers.add("alice");
+        when(salesSketchRepository.findAll()).thenReturn(List.of(
+                sketch(windowStart, SalesSketch.SketchType.TOP_QUANTITY, quantity.toBytes()),
+                sketch(windowStart, SalesSketch.SketchType.TOP_REVENUE, revenue.toBytes()),
+                sketch(windowStart, SalesSketch.SketchType.CUSTOMERS, customers.toBytes())));
+
+        // committed after startup but before the ready event loads the persisted state
+        service.onSaleChanged(SaleChangedEvent.created(snapshot(1, 20L, 3, "bob")));
+        service.onSaleChanged(SaleChangedEvent.created(snapshot(2, 10L, 1, "alice")));
+        service.load();
+
+        TopProductsDTO top = service.getTopProducts(SalesSketchService.RankBy.QUANTITY, month, month, 10);
+        assertThat(top.getProducts()).extracting(TopProductDTO::getProductId, p -> p.getEstimate().intValue())
+                .containsExactly(tuple(10L, 6), tuple(20L, 3));
+        assertThat(top.getTotalWeight()).isEqualByComparingTo(BigDecimal.valueOf(9));
+        assertThat(service.getDistinctCustomers(month, month).getEstimate()).isEqualTo(2L);
+
+        // the merged window is still dirty, so the union gets written back
+        when(salesSketchRepository.findByWindowStartAndSketchType(any(), any())).thenReturn(Optional.empty());
+        service.persist();
+        verify(salesSketchRepository, atLeastOnce()).save(any(SalesSketch.class));
+    }
+
+    private static SalesSketch sketch(LocalDate windowStart, SalesSketch.SketchType type, byte[] data) {
+        SalesSketch sketch = new SalesSketch(windowStart, type);
+        sketch.setData(data);
+        return sketch;
+    }
+
+    private static SaleSnapshot snapshot(long id, Long productId, int quantity, String customerName) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setProductId(productId);
+        sale.setQuantity(quantity);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus(Sale.SaleStatus.PENDING);
+        sale.setCustomerName(customerName);
+        sale.setCreatedAt(LocalDateTime.now());
+        return SaleSnapshot.of(sale);
+    }
+}
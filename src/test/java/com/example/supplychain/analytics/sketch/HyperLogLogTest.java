@@ -0,0 +1,62 @@
+package com.example.supplychain.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinThreeStandardErrors() {
+        for (int distinct : new int[]{100, 10_000, 200_000}) {
+            HyperLogLog sketch = new HyperLogLog(12);
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("customer-" + i);
+                // repeats must not move the estimate
+                sketch.add("customer-" + (i / 2));
+            }
+
+            double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+
+            assertThat(error).as("relative error at %d distinct", distinct)
+                    .isLessThan(3 * sketch.relativeStandardError());
+        }
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        // 30k in each, 10k of them shared, so 50k distinct overall
+        for (int i = 0; i < 30_000; i++) {
+            left.add("customer-" + i);
+            right.add("customer-" + (i + 20_000));
+        }
+
+        HyperLogLog merged = left.merge(right);
+
+        assertThat(Math.abs(merged.estimate() - 50_000) / 50_000.0).isLessThan(3 * merged.relativeStandardError());
+        assertThat(left.merge(left).estimate()).isEqualTo(left.estimate());
+    }
+
+    @Test
+    void refusesToMergeDifferentPrecisions() {
+        assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(12)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("customer-" + i);
+        }
+
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(copy.estimate()).isEqualTo(sketch.estimate());
+        assertThat(copy.relativeStandardError()).isEqualTo(sketch.relativeStandardError());
+        assertThat(copy.toBytes()).isEqualTo(sketch.toBytes());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.supplychain.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    @Test
+    void findsHeavyHittersWithinTheErrorBound() {
+        SpaceSaving sketch = new SpaceSaving(50);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        // ten heavy items carry about half the weight, the rest is a long tail of 10k items
+        for (int i = 0; i < 100_000; i++) {
+            long item = i % 2 == 0 ? random.nextInt(10) : 1_000 + random.nextInt(10_000);
+            long weight = 1 + random.nextInt(3);
+            sketch.add(item, weight);
+            exact.merge(item, weight, Long::sum);
+        }
+
+        List<long[]> top = sketch.top(10);
+
+        assertThat(top).extracting(e -> e[0]).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(sketch.getTotalWeight()).isEqualTo(exact.values().stream().mapToLong(Long::longValue).sum());
+        for (long[] entry : top) {
+            long trueWeight = exact.get(entry[0]);
+            assertThat(entry[1]).isBetween(trueWeight, trueWeight + entry[2]);
+            assertThat(entry[2]).isLessThanOrEqualTo(sketch.errorBound());
+        }
+    }
+
+    @Test
+    void mergedSketchesKeepTheHeavyHittersOfBoth() {
+        SpaceSaving left = new SpaceSaving(20);
+        SpaceSaving right = new SpaceSaving(20);
+        for (long item = 100; item < 1_100; item++) {
+            left.add(item, 1);
+            right.add(item + 1_000, 1);
+        }
+        left.add(1L, 500);
+        right.add(2L, 400);
+        right.add(1L, 100);
+
+        SpaceSaving merged = left.merge(right);
+
+        assertThat(merged.getTotalWeight()).isEqualTo(left.getTotalWeight() + right.getTotalWeight());
+        List<long[]> top = merged.top(2);
+        assertThat(top).extracting(e -> e[0]).containsExactly(1L, 2L);
+        assertThat(top.get(0)[1]).isBetween(600L, 600L + top.get(0)[2]);
+        assertThat(top.get(1)[1]).isBetween(400L, 400L + top.get(1)[2]);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        SpaceSaving sketch = new SpaceSaving(8);
+        for (long item = 0; item < 50; item++) {
+            sketch.add(item, item + 1);
+        }
+
+        SpaceSaving copy = SpaceSaving.fromBytes(sketch.toBytes());
+
+        assertThat(copy.getTotalWeight()).isEqualTo(sketch.getTotalWeight());
+        assertThat(copy.errorBound()).isEqualTo(sketch.errorBound());
+        assertThat(copy.top(8)).usingRecursiveFieldByFieldElementComparator().isEqualTo(sketch.top(8));
+        assertThat(copy.toBytes()).isEqualTo(sketch.toBytes());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.supplychain.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TDigestTest {
+
+    private static final double[] QUANTILES = {0.01, 0.1, 0.5, 0.9, 0.99, 0.999};
+
+    @Test
+    void quantilesStayWithinRankError() {
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        TDigest digest = new TDigest(100);
+        for (int i = 0; i < values.length; i++) {
+            // log-normal, skewed like order values
+            values[i] = Math.exp(random.nextGaussian());
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : QUANTILES) {
+            assertThat(rankError(values, digest.quantile(q), q)).as("rank error at q=%s", q).isLessThan(tolerance(q));
+        }
+        assertThat(digest.getCount()).isEqualTo(values.length);
+        assertThat(digest.getMin()).isEqualTo(values[0]);
+        assertThat(digest.getMax()).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void mergedDigestMatchesTheCombinedData() {
+        Random random = new Random(11);
+        double[] values = new double[60_000];
+        TDigest[] parts = {new TDigest(100), new TDigest(100), new TDigest(100)};
+        for (int i = 0; i < values.length; i++) {
+            // each part sees a different range, so the merge has to interleave them
+            int part = i % 3;
+            values[i] = part * 50 + random.nextDouble() * 100;
+            parts[part].add(values[i]);
+        }
+        Arrays.sort(values);
+
+        TDigest merged = new TDigest(100);
+        for (TDigest part : parts) {
+            merged.merge(part);
+        }
+        merged.merge(new TDigest(100));
+
+        assertThat(merged.getCount()).isEqualTo(values.length);
+        assertThat(merged.getMin()).isEqualTo(values[0]);
+        assertThat(merged.getMax()).isEqualTo(values[values.length - 1]);
+        for (double q : QUANTILES) {
+            assertThat(rankError(values, merged.quantile(q), q)).as("rank error at q=%s", q).isLessThan(tolerance(q));
+        }
+    }
+
+    @Test
+    void emptyDigestHasNoQuantiles() {
+        TDigest digest = new TDigest(100);
+
+        assertThat(digest.quantile(0.5)).isNaN();
+        assertThat(digest.getMin()).isNaN();
+        assertThat(digest.getMax()).isNaN();
+    }
+
+    // the digest is tighter towards the tails, so allow proportionally less error there
+    private static double tolerance(double q) {
+        return Math.max(0.0005, 0.01 * Math.sqrt(q * (1 - q)));
+    }
+
+    private static double rankError(double[] sorted, double estimate, double q) {
+        int index = Arrays.binarySearch(sorted, estimate);
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.abs((double) rank / sorted.length - q);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.exception.IdempotencyKeyConflictException;
+import com.example.supplychain.sale.exception.InvalidIdempotencyKeyException;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class SaleIdempotencyServiceTest {
+
+    private static final String OWNER = "manager";
+
+    @Autowired
+    private SaleIdempotencyService saleIdempotencyService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sameKeyAndBodyReplaysTheOriginalSale() {
+        Long productId = saveStock(stockRepository, 10).getProductId();
+        String key = UUID.randomUUID().toString();
+
+        SaleIdempotencyService.Outcome first = saleIdempotencyService.createSale(OWNER, key, sale(productId, 2));
+        SaleIdempotencyService.Outcome retry = saleIdempotencyService.createSale(OWNER, key, sale(productId, 2));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.sale().getId()).isEqualTo(first.sale().getId());
+        assertThat(salesOf(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithADifferentBodyIsAConflict() {
+        Long productId = saveStock(stockRepository, 10).getProductId();
+        String key = UUID.randomUUID().toString();
+        saleIdempotencyService.createSale(OWNER, key, sale(productId, 2));
+
+        assertThatThrownBy(() -> saleIdempotencyService.createSale(OWNER, key, sale(productId, 3)))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        assertThat(salesOf(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneSale() throws Exception {
+        Long productId = saveStock(stockRepository, 100).getProductId();
+        String key = UUID.randomUUID().toString();
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SaleIdempotencyService.Outcome>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return saleIdempotencyService.createSale(OWNER, key, sale(productId, 1));
+                }));
+            }
+            start.countDown();
+            List<SaleIdempotencyService.Outcome> outcomes = new ArrayList<>();
+            for (Future<SaleIdempotencyService.Outcome> result : results) {
+                outcomes.add(result.get());
+            }
+
+            assertThat(outcomes).extracting(outcome -> outcome.sale().getId()).containsOnly(outcomes.get(0).sale().getId());
+            assertThat(outcomes).filteredOn(outcome -> !outcome.replayed()).hasSize(1);
+        }
+        assertThat(salesOf(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void expiredKeyIsReclaimedForANewSale() {
+        Long productId = saveStock(stockRepository, 10).getProductId();
+        String key = UUID.randomUUID().toString();
+        // left behind by a request two days ago, expired but not purged yet
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("INSERT INTO sale_idempotency_keys (scoped_key, request_hash, sale_id, response, created_at, expires_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", OWNER + ":" + key, "stale", -1L, "{\"id\":-1}",
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt.plusDays(1)));
+
+        SaleIdempotencyService.Outcome outcome = saleIdempotencyService.createSale(OWNER, key, sale(productId, 2));
+
+        assertThat(outcome.replayed()).isFalse();
+        assertThat(outcome.sale().getId()).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT sale_id FROM sale_idempotency_keys WHERE scoped_key = ?",
+                Long.class, OWNER + ":" + key)).isEqualTo(outcome.sale().getId());
+        assertThat(salesOf(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void keysOutsideTheAllowedLengthAreRejected() {
+        Long productId = saveStock(stockRepository, 10).getProductId();
+
+        assertThatThrownBy(() -> saleIdempotencyService.createSale(OWNER, " ", sale(productId, 1)))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThatThrownBy(() -> saleIdempotencyService.createSale(OWNER, "k".repeat(129), sale(productId, 1)))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThat(salesOf(productId)).isZero();
+    }
+
+    private int salesOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private static SaleDTO sale(Long productId, int quantity) {
+        SaleDTO sale = new SaleDTO();
+        sale.setProductId(productId);
+        sale.setQuantity(quantity);
+        sale.setUnitPrice(BigDecimal.TEN);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus("PENDING");
+        sale.setWarehouseLocation("WH-A");
+        return sale;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.product.entity.Product;
+import com.example.supplychain.product.repository.ProductRepository;
+import com.example.supplychain.sale.dto.SaleImportRejectionDTO;
+import com.example.supplychain.sale.dto.SaleImportResultDTO;
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class SaleImportServiceTest {
+
+    @Autowired
+    private SaleImportService saleImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parseCsvLineSplitsPlainAndQuotedFields() {
+        assertThat(SaleImportService.parseCsvLine("a,b,,c")).containsExactly("a", "b", "", "c");
+        assertThat(SaleImportService.parseCsvLine("\"Smith, John\",\"Main St\",3"))
+                .containsExactly("Smith, John", "Main St", "3");
+        assertThat(SaleImportService.parseCsvLine("a,")).containsExactly("a", "");
+    }
+
+    @Test
+    void parseCsvLineUnescapesDoubledQuotes() {
+        assertThat(SaleImportService.parseCsvLine("\"say \"\"hi\"\"\",x"))
+                .containsExactly("say \"hi\"", "x");
+        assertThat(SaleImportService.parseCsvLine("\"\"\"\"")).containsExactly("\"");
+        assertThat(SaleImportService.parseCsvLine("\"\",x")).containsExactly("", "x");
+    }
+
+    @Test
+    void parseCsvLineRejectsAnUnterminatedQuotedField() {
+        assertThatThrownBy(() -> SaleImportService.parseCsvLine("a,\"b,c"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated quoted field");
+        assertThatThrownBy(() -> SaleImportService.parseCsvLine("\"ends with an escaped quote\"\""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void headerNamesAreMatchedWhateverTheirSpelling() throws Exception {
+        Long productId = saveProductWithStock(10);
+        String prefix = UUID.randomUUID().toString();
+        String csv = "\"Sale Order Number\",product_id,QUANTITY,unitPrice,Customer-Name\n"
+                + prefix + "-1," + productId + ",2,5.00,\"Doe, \"\"JD\"\" Jane\"\n";
+
+        SaleImportResultDTO result = importCsv(csv);
+
+        assertThat(result.getRowsImported()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT quantity, total_amount, customer_name, status FROM sales WHERE sale_order_number = ?",
+                prefix + "-1"))
+                .containsEntry("QUANTITY", 2)
+                .containsEntry("CUSTOMER_NAME", "Doe, \"JD\" Jane")
+                .containsEntry("STATUS", "DELIVERED")
+                .hasEntrySatisfying("TOTAL_AMOUNT", amount ->
+                        assertThat((BigDecimal) amount).isEqualByComparingTo("10.00"));
+    }
+
+    @Test
+    void badRowsAreRejectedOneByOneAndTheRestImported() throws Exception {
+        Long stocked = saveProductWithStock(10);
+        Long scarce = saveProductWithStock(1);
+        String prefix = UUID.randomUUID().toString();
+        String csv = "sale_order_number,product_id,quantity,unit_price,status\n"
+                + prefix + "-1," + stocked + ",3,2.50,DELIVERED\n"
+                // repeats the order number of the row above within the same batch
+                + prefix + "-1," + stocked + ",1,2.50,DELIVERED\n"
+                + prefix + "-2," + scarce + ",2,2.50,DELIVERED\n"
+                + prefix + "-3,not-a-number,1,2.50,DELIVERED\n"
+                + prefix + "-4,\"" + stocked + ",1\n"
+                + prefix + "-5," + stocked + ",4,2.50,PENDING\n";
+
+        SaleImportResultDTO result = importCsv(csv);
+
+        assertThat(result.getRowsRead()).isEqualTo(6);
+        assertThat(result.getRowsImported()).isEqualTo(2);
+        assertThat(result.getRowsRejected()).isEqualTo(4);
+        assertThat(result.isRejectionsTruncated()).isFalse();
+        assertThat(result.getRejections())
+                .extracting(SaleImportRejectionDTO::getLine)
+                .containsExactlyInAnyOrder(3L, 4L, 5L, 6L);
+        assertThat(reasonFor(result, 3)).isEqualTo("Duplicate sale order number");
+        assertThat(reasonFor(result, 4)).startsWith("Stock not taken");
+        assertThat(reasonFor(result, 5)).isEqualTo("Invalid productid: not-a-number");
+        assertThat(reasonFor(result, 6)).isEqualTo("Unterminated quoted field");
+
+        assertThat(jdbcTemplate.queryForList("SELECT sale_order_number FROM sales WHERE sale_order_number LIKE ?",
+                String.class, prefix + "%")).containsExactlyInAnyOrder(prefix + "-1", prefix + "-5");
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM sales WHERE sale_order_number = ?",
+                Integer.class, prefix + "-1")).isEqualTo(3);
+        // only the accepted rows took stock; the rejected product kept its unit
+        assertThat(stockRepository.findAll()).filteredOn(s -> s.getProductId().equals(stocked))
+                .singleElement().extracting(Stock::getQuantity).isEqualTo(3);
+        assertThat(stockRepository.findAll()).filteredOn(s -> s.getProductId().equals(scarce))
+                .singleElement().extracting(Stock::getQuantity).isEqualTo(1);
+    }
+
+    @Test
+    void reimportingAFileSkipsTheRowsAlreadyImported() throws Exception {
+        Long productId = saveProductWithStock(10);
+        String prefix = UUID.randomUUID().toString();
+        String csv = "sale_order_number,product_id,quantity,unit_price\n"
+                + prefix + "-1," + productId + ",1,1.00\n";
+
+        assertThat(importCsv(csv).getRowsImported()).isEqualTo(1);
+        SaleImportResultDTO again = importCsv(csv);
+
+        assertThat(again.getRowsImported()).isZero();
+        assertThat(again.getRejections()).singleElement()
+                .extracting(SaleImportRejectionDTO::getReason).isEqualTo("Duplicate sale order number");
+    }
+
+    private SaleImportResultDTO importCsv(String csv) throws Exception {
+        return saleImportService.importSales(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                SaleFileFormat.CSV);
+    }
+
+    private static String reasonFor(SaleImportResultDTO result, long line) {
+        return result.getRejections().stream()
+                .filter(rejection -> rejection.getLine() == line)
+                .findFirst()
+                .map(SaleImportRejectionDTO::getReason)
+                .orElseThrow();
+    }
+
+    // the import checks rows against the products table, so the stock needs a real product
+    private Long saveProductWithStock(int quantity) {
+        Product product = new Product();
+        product.setProductCode("IMP-" + UUID.randomUUID());
+        product.setProductName("Import test product");
+        product.setCategory("Test");
+        product.setUnitPrice(BigDecimal.ONE);
+        Long productId = productRepository.save(product).getId();
+
+        saveStock(stockRepository, productId, "WH-A", quantity);
+        return productId;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.dto.SaleIntakeStatusDTO;
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.example.supplychain.stock.StockFixtures.newProductId;
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// a single worker, so orders queued while it is busy are taken as one batch
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "sales.intake.enabled=true",
+        "sales.intake.workers=1",
+        "sales.intake.max-tracked=" + SaleIntakeServiceTest.MAX_TRACKED
+})
+@ActiveProfiles("h2")
+class SaleIntakeServiceTest {
+
+    static final int MAX_TRACKED = 10;
+
+    @Autowired
+    private SaleIntakeService saleIntakeService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void oldestFinishedStatusesMakeRoomForNewOrders() throws Exception {
+        Stock stock = saveStock(stockRepository, 100);
+        List<String> trackingIds = new ArrayList<>();
+        // one at a time, so they finish in the order they were submitted
+        for (int i = 0; i < MAX_TRACKED; i++) {
+            String trackingId = saleIntakeService.submit(sale(stock.getProductId())).getTrackingId();
+            awaitFinished(trackingId);
+            trackingIds.add(trackingId);
+        }
+
+        String next = saleIntakeService.submit(sale(stock.getProductId())).getTrackingId();
+
+        assertThatThrownBy(() -> saleIntakeService.getStatus(trackingIds.get(0)))
+                .hasMessageContaining("not found");
+        assertThat(saleIntakeService.getStatus(trackingIds.get(1)).getState())
+                .isEqualTo(SaleIntakeStatusDTO.State.CREATED);
+        assertThat(saleIntakeService.getStatus(next)).isNotNull();
+    }
+
+    @Test
+    void unstockedProductIsRejectedWithoutSinkingItsBatch() throws Exception {
+        Stock blockerStock = saveStock(stockRepository, 10);
+        Stock stock = saveStock(stockRepository, 10);
+        long unstockedProductId = newProductId();
+
+        // hold the blocker's row so the worker stalls on it while the batch queues up
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM stocks WHERE id = ? FOR UPDATE", blockerStock.getId());
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+        String blocker = saleIntakeService.submit(sale(blockerStock.getProductId())).getTrackingId();
+        awaitState(blocker, SaleIntakeStatusDTO.State.PROCESSING);
+
+        List<String> good = new ArrayList<>();
+        good.add(saleIntakeService.submit(sale(stock.getProductId())).getTrackingId());
+        String unstocked = saleIntakeService.submit(sale(unstockedProductId)).getTrackingId();
+        good.add(saleIntakeService.submit(sale(stock.getProductId())).getTrackingId());
+        good.add(saleIntakeService.submit(sale(stock.getProductId())).getTrackingId());
+        release.countDown();
+        holder.join();
+
+        for (String trackingId : good) {
+            awaitFinished(trackingId);
+            assertThat(saleIntakeService.getStatus(trackingId).getState()).isEqualTo(SaleIntakeStatusDTO.State.CREATED);
+        }
+        awaitFinished(unstocked);
+        assertThat(saleIntakeService.getStatus(unstocked).getState()).isEqualTo(SaleIntakeStatusDTO.State.REJECTED);
+        assertThat(saleIntakeService.getStatus(unstocked).getReason()).contains(String.valueOf(unstockedProductId));
+        assertThat(stockRepository.findById(stock.getId()).orElseThrow().getQuantity()).isEqualTo(7);
+    }
+
+    private void awaitFinished(String trackingId) throws InterruptedException {
+        awaitState(trackingId, SaleIntakeStatusDTO.State.CREATED, SaleIntakeStatusDTO.State.REJECTED);
+    }
+
+    private void awaitState(String trackingId, SaleIntakeStatusDTO.State... states) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!List.of(states).contains(saleIntakeService.getStatus(trackingId).getState())) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static SaleDTO sale(Long productId) {
+        SaleDTO sale = new SaleDTO();
+        sale.setProductId(productId);
+        sale.setQuantity(1);
+        sale.setUnitPrice(BigDecimal.TEN);
+        sale.setTotalAmount(BigDecimal.TEN);
+        sale.setStatus("PENDING");
+        sale.setWarehouseLocation("WH-A");
+        return sale;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.supplychain.sale.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.dto.SalePageDTO;
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.exception.InsufficientStockException;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.supplychain.stock.StockFixtures.newProductId;
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class SaleServiceTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentSalesNeverReserveMoreThanIsInStock() throws Exception {
+        int initial = 200;
+        Stock stock = saveStock(stockRepository, initial);
+        int threads = 400;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+
+        // a thread per sale, all let go at once against the one row
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                int quantity = 1 + i % 3;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        saleService.createSale(sale(stock.getProductId(), quantity, "PENDING"));
+                        created.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        Integer reserved = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(reserved_quantity), 0) FROM sales WHERE product_id = ?",
+                Integer.class, stock.getProductId());
+        assertThat(created.get() + rejected.get()).isEqualTo(threads);
+        assertThat(rejected.get()).isPositive();
+        assertThat(quantityOf(stock)).isNotNegative();
+        // every unit is either still on the shelf or held by exactly one sale
+        assertThat(quantityOf(stock) + reserved).isEqualTo(initial);
+    }
+
+    @Test
+    void deletingAShippedSaleReturnsItsUnits() {
+        Stock stock = saveStock(stockRepository, 20);
+        SaleDTO sale = saleService.createSale(sale(stock.getProductId(), 4, "PENDING"));
+        sale.setStatus("SHIPPED");
+        saleService.updateSale(sale.getId(), sale);
+        assertThat(quantityOf(stock)).isEqualTo(16);
+
+        saleService.deleteSale(sale.getId());
+
+        assertThat(quantityOf(stock)).isEqualTo(20);
+    }
+
+    @Test
+    void deletingACancelledSaleLeavesStockAlone() {
+        Stock stock = saveStock(stockRepository, 20);
+        SaleDTO sale = saleService.createSale(sale(stock.getProductId(), 4, "CANCELLED"));
+        assertThat(quantityOf(stock)).isEqualTo(20);
+
+        saleService.deleteSale(sale.getId());
+
+        assertThat(quantityOf(stock)).isEqualTo(20);
+    }
+
+    @Test
+    void salesThatNeverReservedReleaseNothing() {
+        Stock stock = saveStock(stockRepository, 20);
+        SaleDTO sale = saleService.createSale(sale(stock.getProductId(), 4, "PENDING"));
+        // as a row written before reservations were recorded would look
+        jdbcTemplate.update("UPDATE sales SET reserved_quantity = NULL WHERE id = ?", sale.getId());
+        sale.setQuantity(1);
+        sale.setTotalAmount(BigDecimal.TEN);
+
+        saleService.updateSale(sale.getId(), sale);
+        assertThat(quantityOf(stock)).isEqualTo(16);
+        saleService.deleteSale(sale.getId());
+
+        assertThat(quantityOf(stock)).isEqualTo(16);
+    }
+
+    @Test
+    void saleCanBeDeletedAfterItsStockRowIsGone() {
+        Stock stock = saveStock(stockRepository, 20);
+        SaleDTO sale = saleService.createSale(sale(stock.getProductId(), 4, "PENDING"));
+        stockRepository.deleteById(stock.getId());
+
+        saleService.deleteSale(sale.getId());
+
+        assertThatThrownBy(() -> saleService.getSaleById(sale.getId())).hasMessageContaining("not found");
+    }
+
+    @Test
+    void saleOfAnUnstockedProductIsRefusedAsOutOfStock() {
+        long productId = newProductId();
+
+        assertThatThrownBy(() -> saleService.createSale(sale(productId, 1, "PENDING")))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("is not stocked in warehouse WH-A");
+    }
+
+    @Test
+    void pagesWalkEverySaleOnceAcrossTiedTimestamps() {
+        Stock stock = saveStock(stockRepository, 100);
+        List<Long> pending = new ArrayList<>();
+        List<Long> all = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            SaleDTO sale = saleService.createSale(sale(stock.getProductId(), 1, i % 3 == 2 ? "CANCELLED" : "PENDING"));
+            all.add(sale.getId());
+            if (!"CANCELLED".equals(sale.getStatus())) {
+                pending.add(sale.getId());
+            }
+        }
+        // one timestamp for every row, so only the id orders them
+        jdbcTemplate.update("UPDATE sales SET created_at = ? WHERE product_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().withNano(0)), stock.getProductId());
+        all.sort(Comparator.reverseOrder());
+        pending.sort(Comparator.reverseOrder());
+
+        assertThat(walk(null, stock.getProductId())).isEqualTo(all);
+        assertThat(walk("PENDING", stock.getProductId())).isEqualTo(pending);
+    }
+
+    private List<Long> walk(String status, Long productId) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            SalePageDTO page = saleService.getSales(status, productId, null, null, null, cursor, 2);
+            page.getItems().forEach(sale -> ids.add(sale.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private int quantityOf(Stock stock) {
+        return stockRepository.findById(stock.getId()).orElseThrow().getQuantity();
+    }
+
+    private static SaleDTO sale(Long productId, int quantity, String status) {
+        SaleDTO sale = new SaleDTO();
+        sale.setProductId(productId);
+        sale.setQuantity(quantity);
+        sale.setUnitPrice(BigDecimal.TEN);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus(status);
+        sale.setWarehouseLocation("WH-A");
+        return sale;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.supplychain.stock;
+
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.repository.StockRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock rows for tests that share one application context and database: every row gets
+ * a product id of its own, far above the seeded ones, so tests never see each other's
+ * stock or trip the (product, warehouse) unique key.
+ */
+public final class StockFixtures {
+
+    public static final String WAREHOUSE = "WH-A";
+
+    private StockFixtures() {
+    }
+
+    public static Long newProductId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+    }
+
+    /** An unsaved row with no minimum level and room above the quantity. */
+    public static Stock newStock(Long productId, String warehouseLocation, int quantity) {
+        Stock stock = new Stock();
+        stock.setProductId(productId);
+        stock.setWarehouseLocation(warehouseLocation);
+        stock.setQuantity(quantity);
+        stock.setMinimumLevel(0);
+        stock.setMaximumLevel(100_000);
+        return stock;
+    }
+
+    public static Stock saveStock(StockRepository stockRepository, int quantity) {
+        return saveStock(stockRepository, newProductId(), WAREHOUSE, quantity);
+    }
+
+    public static Stock saveStock(StockRepository stockRepository, Long productId, String warehouseLocation, int quantity) {
+        return stockRepository.save(newStock(productId, warehouseLocation, quantity));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.supplychain.stock.ledger;
+
+import com.example.supplychain.stock.StockFixtures;
+import com.example.supplychain.stock.exception.InsufficientStockException;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "stock.ledger.enabled=true",
+        "stock.ledger.wal-path=target/test-data/stock-ledger.wal",
+        "stock.ledger.flush-interval-ms=3600000"
+})
+@ActiveProfiles("h2")
+class StockLedgerTest {
+
+    private static final Path WAL = Path.of("target/test-data/stock-ledger.wal");
+    private static final long RECORD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rolledBackReservationIsNotLoggedAndFreesItsUnits() throws Exception {
+        Long stockId = saveStock(10);
+        stockLedger.flush();
+        long logged = Files.size(WAL);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stockLedger.adjust(stockId, -8);
+            // held for the open transaction, so nobody else can take them
+            assertThatThrownBy(() -> stockLedger.adjust(stockId, -3)).isInstanceOf(InsufficientStockException.class);
+            status.setRollbackOnly();
+        });
+
+        assertThat(stockLedger.peekQuantity(stockId)).hasValue(10);
+        assertThat(Files.size(WAL)).isEqualTo(logged);
+    }
+
+    @Test
+    void rollbackAfterTheRowWasDrainedStillSucceeds() {
+        Long stockId = saveStock(10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stockLedger.adjust(stockId, -8);
+            // another caller, outside this transaction, takes everything that is left
+            Thread other = Thread.ofVirtual().start(() -> stockLedger.adjust(stockId, -2));
+            try {
+                other.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(stockLedger.peekQuantity(stockId)).hasValue(8);
+    }
+
+    @Test
+    void increaseIsOnlyAvailableOnceCommitted() {
+        Long stockId = saveStock(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stockLedger.adjust(stockId, 5);
+            assertThat(stockLedger.peekQuantity(stockId)).hasValue(0);
+        });
+
+        assertThat(stockLedger.peekQuantity(stockId)).hasValue(5);
+    }
+
+    @Test
+    void committedChangeIsLoggedAndFlushed() throws Exception {
+        Long stockId = saveStock(10);
+        stockLedger.flush();
+        long logged = Files.size(WAL);
+
+        transactionTemplate.executeWithoutResult(status -> stockLedger.adjust(stockId, -4));
+
+        assertThat(Files.size(WAL)).isEqualTo(logged + RECORD_SIZE);
+        stockLedger.flush();
+        assertThat(stockRepository.findById(stockId).orElseThrow().getQuantity()).isEqualTo(6);
+    }
+
+    private Long saveStock(int quantity) {
+        Long stockId = StockFixtures.saveStock(stockRepository, quantity).getId();
+        stockLedger.get(stockId);
+        return stockId;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.sale.dto.SaleDTO;
+import com.example.supplychain.sale.service.SaleService;
+import com.example.supplychain.stock.dto.LowStockAlertDTO;
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.repository.StockRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.supplychain.stock.StockFixtures.newProductId;
+import static com.example.supplychain.stock.StockFixtures.newStock;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives stock across its minimum through sales and watches the alerts arrive at a
+ * webhook, so the whole path from the stock event to delivery is covered.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class LowStockAlertServiceTest {
+
+    private static final BlockingQueue<byte[]> deliveries = new LinkedBlockingQueue<>();
+    private static final HttpServer webhook = startWebhook();
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("stock.alerts.webhook-urls",
+                () -> "http://localhost:" + webhook.getAddress().getPort() + "/alerts");
+    }
+
+    @AfterAll
+    static void stopWebhook() {
+        webhook.stop(0);
+    }
+
+    @Test
+    void saleTakingStockBelowMinimumAlertsLowAndDeletingItRecovers() throws Exception {
+        Stock stock = saveStock(12, 10);
+
+        SaleDTO sale = saleService.createSale(sale(stock.getProductId(), 5));
+
+        LowStockAlertDTO low = nextAlertFor(stock.getId());
+        assertThat(low.getType()).isEqualTo(LowStockAlertDTO.Type.LOW);
+        assertThat(low.getQuantity()).isEqualTo(7);
+
+        saleService.deleteSale(sale.getId());
+
+        LowStockAlertDTO recovered = nextAlertFor(stock.getId());
+        assertThat(recovered.getType()).isEqualTo(LowStockAlertDTO.Type.RECOVERED);
+        assertThat(recovered.getQuantity()).isEqualTo(12);
+    }
+
+    @Test
+    void saleStayingAboveMinimumDoesNotAlert() throws Exception {
+        Stock stock = saveStock(20, 10);
+
+        saleService.createSale(sale(stock.getProductId(), 5));
+        // a manual adjustment afterwards that does cross proves delivery is working, and
+        // that nothing for this row was queued ahead of it
+        stockService.adjustStock(stock.getId(), -6);
+
+        LowStockAlertDTO alert = nextAlertFor(stock.getId());
+        assertThat(alert.getType()).isEqualTo(LowStockAlertDTO.Type.LOW);
+        assertThat(alert.getQuantity()).isEqualTo(9);
+    }
+
+    private LowStockAlertDTO nextAlertFor(Long stockId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            byte[] body = deliveries.poll(100, TimeUnit.MILLISECONDS);
+            if (body == null) {
+                continue;
+            }
+            List<LowStockAlertDTO> alerts = objectMapper.readValue(body, new TypeReference<>() {});
+            for (LowStockAlertDTO alert : alerts) {
+                if (alert.getStockId().equals(stockId)) {
+                    return alert;
+                }
+            }
+        }
+        throw new AssertionError("No alert delivered for stock " + stockId);
+    }
+
+    private Stock saveStock(int quantity, int minimumLevel) {
+        Stock stock = newStock(newProductId(), "WH-A", quantity);
+        stock.setMinimumLevel(minimumLevel);
+        return stockRepository.save(stock);
+    }
+
+    private static SaleDTO sale(Long productId, int quantity) {
+        SaleDTO sale = new SaleDTO();
+        sale.setProductId(productId);
+        sale.setQuantity(quantity);
+        sale.setUnitPrice(BigDecimal.TEN);
+        sale.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        sale.setStatus("PENDING");
+        sale.setWarehouseLocation("WH-A");
+        return sale;
+    }
+
+    private static HttpServer startWebhook() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/alerts", exchange -> {
+                deliveries.add(exchange.getRequestBody().readAllBytes());
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
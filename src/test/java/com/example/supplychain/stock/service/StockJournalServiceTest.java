@@ -0,0 +1,91 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.dto.StockDTO;
+import com.example.supplychain.stock.dto.StockMovementDTO;
+import com.example.supplychain.stock.entity.StockMovement;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.supplychain.stock.StockFixtures.newProductId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "stock.journal.settle-ms=0")
+@ActiveProfiles("h2")
+class StockJournalServiceTest {
+
+    @Autowired
+    private StockJournalService stockJournalService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void movementIsVisibleAsSoonAsTheChangeCommits() {
+        StockDTO stock = saveStock(50);
+
+        stockService.reserveStock(stock.getProductId(), "WH-A", 8, 201L);
+
+        List<StockMovementDTO> movements = movements(stock.getProductId());
+        assertThat(movements).hasSize(2);
+        assertThat(movements.get(1).getDelta()).isEqualTo(-8);
+        assertThat(movements.get(1).getReason()).isEqualTo(StockMovement.Reason.SALE_RESERVED.name());
+        assertThat(movements.get(1).getReferenceSaleId()).isEqualTo(201L);
+    }
+
+    @Test
+    void rolledBackChangeLeavesNoMovement() {
+        StockDTO stock = saveStock(50);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stockService.reserveStock(stock.getProductId(), "WH-A", 8, 202L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(movements(stock.getProductId())).extracting(StockMovementDTO::getReason)
+                .containsExactly(StockMovement.Reason.OPENING.name());
+    }
+
+    @Test
+    void snapshotChainMatchesTheStockRow() {
+        StockDTO stock = saveStock(50);
+
+        stockService.reserveStock(stock.getProductId(), "WH-A", 8, 203L);
+        stockJournalService.takeSnapshots();
+        stockService.releaseStock(stock.getProductId(), "WH-A", 3, 203L);
+        stockService.adjustStock(stock.getId(), -10);
+        stockJournalService.takeSnapshots();
+
+        long onHand = stockRepository.findById(stock.getId()).orElseThrow().getQuantity();
+        assertThat(onHand).isEqualTo(35);
+        assertThat(stockJournalService.getQuantityAt(stock.getProductId(), LocalDateTime.now()).getQuantity())
+                .isEqualTo(onHand);
+    }
+
+    private List<StockMovementDTO> movements(Long productId) {
+        return stockJournalService.getMovements(productId, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+    }
+
+    // created through the service so the opening quantity is journaled too
+    private StockDTO saveStock(int quantity) {
+        StockDTO stock = new StockDTO();
+        stock.setProductId(newProductId());
+        stock.setWarehouseLocation("WH-A");
+        stock.setQuantity(quantity);
+        stock.setMinimumLevel(0);
+        stock.setMaximumLevel(100);
+        return stockService.createStock(stock);
+    }
+}
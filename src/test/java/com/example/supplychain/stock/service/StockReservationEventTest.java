@@ -0,0 +1,80 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.entity.StockMovement;
+import com.example.supplychain.stock.event.StockChangedEvent;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+import static com.example.supplychain.stock.StockFixtures.newProductId;
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+@RecordApplicationEvents
+class StockReservationEventTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void reservePublishesQuantitiesAroundTheUpdate() {
+        Stock stock = saveStock(stockRepository, 50);
+
+        stockService.reserveStock(stock.getProductId(), "WH-A", 8, 101L);
+
+        StockChangedEvent event = single(StockMovement.Reason.SALE_RESERVED);
+        assertThat(event.getBefore().getQuantity()).isEqualTo(50);
+        assertThat(event.getAfter().getQuantity()).isEqualTo(42);
+        assertThat(event.getReferenceSaleId()).isEqualTo(101L);
+        assertThat(stockRepository.findById(stock.getId()).orElseThrow().getQuantity()).isEqualTo(42);
+    }
+
+    @Test
+    void releasePublishesQuantitiesAroundTheUpdate() {
+        Stock stock = saveStock(stockRepository, 30);
+
+        stockService.releaseStock(stock.getProductId(), "WH-A", 5, 102L);
+
+        StockChangedEvent event = single(StockMovement.Reason.SALE_RELEASED);
+        assertThat(event.getBefore().getQuantity()).isEqualTo(30);
+        assertThat(event.getAfter().getQuantity()).isEqualTo(35);
+    }
+
+    @Test
+    void reserveWithoutWarehousePublishesTheRowItTookFrom() {
+        Long productId = newProductId();
+        saveStock(stockRepository, productId, "WH-A", 10);
+        saveStock(stockRepository, productId, "WH-B", 25);
+
+        String warehouse = stockService.reserveStock(productId, null, 20, 103L);
+
+        StockChangedEvent event = single(StockMovement.Reason.SALE_RESERVED);
+        assertThat(warehouse).isEqualTo("WH-B");
+        assertThat(event.getAfter().getWarehouseLocation()).isEqualTo("WH-B");
+        assertThat(event.getBefore().getQuantity()).isEqualTo(25);
+        assertThat(event.getAfter().getQuantity()).isEqualTo(5);
+    }
+
+    private StockChangedEvent single(StockMovement.Reason reason) {
+        List<StockChangedEvent> published = events.stream(StockChangedEvent.class)
+                .filter(event -> event.getReason() == reason)
+                .toList();
+        assertThat(published).hasSize(1);
+        return published.get(0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.supplychain.stock.service;
+
+import com.example.supplychain.stock.entity.Stock;
+import com.example.supplychain.stock.exception.InsufficientStockException;
+import com.example.supplychain.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.supplychain.stock.StockFixtures.saveStock;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// enough attempts that every adjust gets through the contention this test creates
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "stock.optimistic.max-attempts=100",
+        "stock.optimistic.backoff-max-ms=20"
+})
+@ActiveProfiles("h2")
+class StockServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Test
+    void concurrentAdjustsOnOneRowAreAllApplied() throws Exception {
+        Stock stock = saveStock(stockRepository, 100);
+        int adjusts = 200;
+
+        AtomicInteger applied = runConcurrently(adjusts, () -> stockService.adjustStock(stock.getId(), 1));
+
+        assertThat(applied.get()).isEqualTo(adjusts);
+        assertThat(quantityOf(stock)).isEqualTo(100 + adjusts);
+        // the writers really did collide, so the retry path is what kept every delta
+        assertThat(stockService.getContention(Integer.MAX_VALUE))
+                .filteredOn(c -> c.getProductId().equals(stock.getProductId()))
+                .singleElement()
+                .satisfies(c -> assertThat(c.getRetries()).isPositive());
+    }
+
+    @Test
+    void concurrentDecrementsStopAtZero() throws Exception {
+        Stock stock = saveStock(stockRepository, 30);
+
+        AtomicInteger applied = runConcurrently(60, () -> stockService.adjustStock(stock.getId(), -1));
+
+        assertThat(applied.get()).isEqualTo(30);
+        assertThat(quantityOf(stock)).isZero();
+    }
+
+    // returns how many calls went through; running out of stock is an expected refusal
+    private AtomicInteger runConcurrently(int calls, Runnable call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>(calls);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < calls; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        call.run();
+                        applied.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // refused, not lost
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        return applied;
+    }
+
+    private int quantityOf(Stock stock) {
+        return stockRepository.findById(stock.getId()).orElseThrow().getQuantity();
+    }
+}